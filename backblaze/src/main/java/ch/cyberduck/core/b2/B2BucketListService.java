@@ -50,8 +50,11 @@ public class B2BucketListService implements RootListService {
                         attributes.setAcl(new Acl(new Acl.GroupUser(Acl.GroupUser.EVERYONE, false), new Acl.Role(Acl.Role.READ)));
                         break;
                 }
-                buckets.add(new Path(bucket.getBucketName(), EnumSet.of(Path.Type.directory, Path.Type.volume), attributes));
+                final Path container = new Path(bucket.getBucketName(), EnumSet.of(Path.Type.directory, Path.Type.volume), attributes);
+                session.getFileidCache().put(container, bucket.getBucketId());
+                buckets.add(container);
             }
+            session.getFileidCache().retain(directory, buckets);
             listener.chunk(directory, buckets);
             return buckets;
         }
@@ -66,6 +66,7 @@ public class B2DeleteFeature implements Delete {
                     }
                     try {
                         session.getClient().deleteFileVersion(containerService.getKey(file), fileid);
+                        session.getFileidCache().remove(file);
                     }
                     catch(B2ApiException e) {
                         log.warn(String.format("Ignore failure %s deleting placeholder file for %s", e.getMessage(), file));
@@ -77,6 +78,7 @@ public class B2DeleteFeature implements Delete {
                 else if(file.isFile()) {
                     try {
                         session.getClient().deleteFileVersion(containerService.getKey(file), new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()));
+                        session.getFileidCache().remove(file);
                     }
                     catch(B2ApiException e) {
                         throw new B2ExceptionMappingService().map("Cannot delete {0}", e, file);
@@ -93,6 +95,7 @@ public class B2DeleteFeature implements Delete {
                     callback.delete(file);
                     // Finally delete bucket itself
                     session.getClient().deleteBucket(new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()));
+                    session.getFileidCache().remove(file);
                 }
             }
             catch(B2ApiException e) {
@@ -55,6 +55,10 @@ public class B2FileidProvider implements IdProvider {
         if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
             return file.attributes().getVersionId();
         }
+        final String cached = session.getFileidCache().get(file);
+        if(StringUtils.isNotBlank(cached)) {
+            return cached;
+        }
         if(containerService.isContainer(file)) {
             final AttributedList<Path> list;
             if(!cache.isCached(file.getParent())) {
@@ -68,6 +72,7 @@ public class B2FileidProvider implements IdProvider {
             if(null == found) {
                 throw new NotfoundException(file.getAbsolute());
             }
+            session.getFileidCache().put(file, found.attributes().getVersionId());
             return found.attributes().getVersionId();
         }
         try {
@@ -76,6 +81,7 @@ public class B2FileidProvider implements IdProvider {
                     containerService.getKey(file), 2);
             for(B2FileInfoResponse info : response.getFiles()) {
                 if(StringUtils.equals(containerService.getKey(file), info.getFileName())) {
+                    session.getFileidCache().put(file, info.getFileId());
                     return info.getFileId();
                 }
             }
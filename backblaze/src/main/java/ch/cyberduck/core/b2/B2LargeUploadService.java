@@ -33,8 +33,7 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.DefaultThreadPool;
-import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.SegmentScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -94,7 +93,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                                  final StreamListener listener,
                                  final TransferStatus status,
                                  final ConnectionCallback callback) throws BackgroundException {
-        final DefaultThreadPool pool = new DefaultThreadPool("largeupload", concurrency);
+        final SegmentScheduler.SegmentThreadPool pool = SegmentScheduler.get(session.getHost()).pool(concurrency);
         try {
             final String fileid;
             // Get the results of the uploads in the order they were submitted
@@ -195,6 +194,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 checksums.add(part.getContentSha1());
             }
             final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(fileid, checksums.toArray(new String[checksums.size()]));
+            session.getFileidCache().put(file, response.getFileId());
             if(log.isInfoEnabled()) {
                 log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
             }
@@ -210,7 +210,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
         }
     }
 
-    private Future<B2UploadPartResponse> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<B2UploadPartResponse> submit(final SegmentScheduler.SegmentThreadPool pool, final Path file, final Local local,
                                                 final BandwidthThrottle throttle, final StreamListener listener,
                                                 final TransferStatus overall,
                                                 final int partNumber,
@@ -248,7 +248,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                     }
                 }, callback);
             }
-        }, overall));
+        }, overall), length);
     }
 
     @Override
@@ -36,6 +36,7 @@ import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -89,9 +90,10 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
 
     @Override
     public StatusOutputStream<VersionId> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
+        final SegmentBufferPool buffers = SegmentBufferPool.get(PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"));
+        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status, buffers);
         return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
-            PreferencesFactory.get().getInteger("b2.upload.largeobject.size.minimum"))) {
+            buffers.getSize(), buffers)) {
             @Override
             public VersionId getStatus() throws BackgroundException {
                 return proxy.getFileId();
@@ -128,13 +130,15 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final SegmentBufferPool buffers;
 
         private VersionId version;
         private int partNumber;
 
-        public LargeUploadOutputStream(final Path file, final TransferStatus status) {
+        public LargeUploadOutputStream(final Path file, final TransferStatus status, final SegmentBufferPool buffers) {
             this.file = file;
             this.overall = status;
+            this.buffers = buffers;
         }
 
         @Override
@@ -201,6 +205,9 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
             catch(B2ApiException e) {
                 throw new IOException(new B2ExceptionMappingService().map("Upload {0} failed", e, file));
             }
+            finally {
+                buffers.release(content);
+            }
         }
 
         @Override
@@ -228,6 +235,7 @@ public class B2LargeUploadWriteFeature implements MultipartWrite<VersionId> {
                         checksums.add(part.getContentSha1());
                     }
                     final B2FinishLargeFileResponse response = session.getClient().finishLargeFileUpload(version.id, checksums.toArray(new String[checksums.size()]));
+                    session.getFileidCache().put(file, response.getFileId());
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Finished large file upload %s with %d parts", file, completed.size()));
                     }
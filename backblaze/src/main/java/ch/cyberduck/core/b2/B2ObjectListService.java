@@ -97,6 +97,7 @@ public class B2ObjectListService implements ListService {
                 listener.chunk(directory, objects);
             }
             while(marker.hasNext());
+            session.getFileidCache().retain(directory, objects);
             return objects;
         }
         catch(B2ApiException e) {
@@ -137,8 +138,20 @@ public class B2ObjectListService implements ListService {
             }
             revisions.put(info.getFileName(), revision);
             attributes.setRevision(revision);
-            objects.add(new Path(directory, PathNormalizer.name(info.getFileName()),
-                info.getAction() == Action.start ? EnumSet.of(Path.Type.file, Path.Type.upload) : EnumSet.of(Path.Type.file), attributes));
+            final Path file = new Path(directory, PathNormalizer.name(info.getFileName()),
+                info.getAction() == Action.start ? EnumSet.of(Path.Type.file, Path.Type.upload) : EnumSet.of(Path.Type.file), attributes);
+            if(1 == revision) {
+                // Latest version is used to resolve identifier of file
+                switch(info.getAction()) {
+                    case upload:
+                        session.getFileidCache().put(file, info.getFileId());
+                        break;
+                    case hide:
+                        session.getFileidCache().remove(file);
+                        break;
+                }
+            }
+            objects.add(file);
         }
         if(null == response.getNextFileName()) {
             return new Marker(response.getNextFileName(), response.getNextFileId());
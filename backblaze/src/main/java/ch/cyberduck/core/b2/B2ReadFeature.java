@@ -20,11 +20,15 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.http.HttpMethodReleaseInputStream;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -32,6 +36,7 @@ import synapticloop.b2.exception.B2ApiException;
 import synapticloop.b2.response.B2DownloadFileResponse;
 
 public class B2ReadFeature implements Read {
+    private static final Logger log = Logger.getLogger(B2ReadFeature.class);
 
     private final B2Session session;
 
@@ -41,15 +46,31 @@ public class B2ReadFeature implements Read {
 
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
+            return this.read(file, file.attributes().getVersionId(), status);
+        }
+        final B2FileidProvider fileid = new B2FileidProvider(session);
+        try {
+            return this.read(file, fileid.getFileid(file, new DisabledListProgressListener()), status);
+        }
+        catch(NotfoundException e) {
+            // Cached identifier may refer to a version deleted in the meantime
+            log.warn(String.format("Retry download of %s with identifier looked up on server. %s", file, e.getMessage()));
+            session.getFileidCache().remove(file);
+            return this.read(file, fileid.getFileid(file, new DisabledListProgressListener()), status);
+        }
+    }
+
+    private InputStream read(final Path file, final String fileid, final TransferStatus status) throws BackgroundException {
         try {
             if(status.isAppend()) {
                 final HttpRange range = HttpRange.withStatus(status);
                 return session.getClient().downloadFileRangeByIdToStream(
-                        new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()),
+                        fileid,
                         range.getStart(), range.getEnd()
                 );
             }
-            final B2DownloadFileResponse response = session.getClient().downloadFileById(new B2FileidProvider(session).getFileid(file, new DisabledListProgressListener()));
+            final B2DownloadFileResponse response = session.getClient().downloadFileById(fileid);
             return new HttpMethodReleaseInputStream(response.getResponse());
         }
         catch(B2ApiException e) {
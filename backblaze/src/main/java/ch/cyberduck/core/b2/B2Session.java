@@ -17,6 +17,7 @@ package ch.cyberduck.core.b2;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -46,6 +47,8 @@ public class B2Session extends HttpSession<B2ApiClient> {
 
     private B2ErrorResponseInterceptor retryHandler;
 
+    private final FileidCache fileid = new FileidCache();
+
     public B2Session(final Host host) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), host.getHostname()), new DefaultX509KeyManager());
     }
@@ -65,6 +68,7 @@ public class B2Session extends HttpSession<B2ApiClient> {
 
     @Override
     public void logout() throws BackgroundException {
+        fileid.clear();
         try {
             client.close();
         }
@@ -73,6 +77,13 @@ public class B2Session extends HttpSession<B2ApiClient> {
         }
     }
 
+    /**
+     * @return File identifiers shared by all features of this session
+     */
+    public FileidCache getFileidCache() {
+        return fileid;
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return new B2ListService(this, new B2FileidProvider(this)).list(directory, listener);
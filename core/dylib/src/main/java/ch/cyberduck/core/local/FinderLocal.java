@@ -29,6 +29,7 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.FileChannelOutputStream;
 import ch.cyberduck.core.io.LocalRepeatableFileInputStream;
 import ch.cyberduck.core.library.Native;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -49,6 +50,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class FinderLocal extends Local {
     private static final Logger log = Logger.getLogger(FinderLocal.class);
@@ -149,6 +153,7 @@ public class FinderLocal extends Local {
 
     @Override
     public OutputStream getOutputStream(boolean append) throws AccessDeniedException {
+        this.attributes().refresh();
         final NSURL resolved;
         try {
             resolved = this.lock(false);
@@ -174,6 +179,35 @@ public class FinderLocal extends Local {
         }
     }
 
+    @Override
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        this.attributes().refresh();
+        final NSURL resolved;
+        try {
+            resolved = this.lock(false);
+        }
+        catch(LocalAccessDeniedException e) {
+            return super.getOutputStream(position);
+        }
+        try {
+            return new FileChannelOutputStream(FileChannel.open(Paths.get(resolved.path()),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE), position) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        release(resolved);
+                    }
+                }
+            };
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
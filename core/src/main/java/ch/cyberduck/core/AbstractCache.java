@@ -18,31 +18,59 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
-import org.apache.commons.collections4.map.LRUMap;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Cache of directory listings. Least recently used listings are evicted when either the number of cached
+ * directories or the total number of cached children exceeds its limit.
+ */
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
-    private final Map<T, AttributedList<T>> impl;
+    /**
+     * Entries in access order with least recently used first. Guarded by this.
+     */
+    private final LinkedHashMap<T, Entry<T>> impl
+            = new LinkedHashMap<T, Entry<T>>(16, 0.75f, true);
+
+    /**
+     * Maximum number of directories
+     */
+    private final int size;
+    /**
+     * Maximum number of children in all cached directory listings
+     */
+    private final long limit;
+
+    /**
+     * Number of children in all cached directory listings when last weighed
+     */
+    private long count;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
 
     public AbstractCache(int size) {
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            impl = Collections.synchronizedMap(new LinkedHashMap<T, AttributedList<T>>());
-        }
-        else if(size == 0) {
-            impl = Collections.emptyMap();
-        }
-        else {
-            // Will inflate to the given size
-            impl = Collections.synchronizedMap(new LRUMap<T, AttributedList<T>>(size));
-        }
+        this(size, size == Integer.MAX_VALUE ? Long.MAX_VALUE : PreferencesFactory.get().getLong("cache.children.limit"));
+    }
+
+    /**
+     * @param size  Maximum number of directory listings. Unlimited for Integer.MAX_VALUE.
+     * @param limit Maximum number of children in all cached directory listings
+     */
+    public AbstractCache(int size, long limit) {
+        this.size = size;
+        this.limit = limit;
     }
 
     @Override
@@ -50,19 +78,25 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         return null;
     }
 
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return impl.isEmpty();
     }
 
-    public Set<T> keySet() {
-        return impl.keySet();
+    /**
+     * @return Copy of cached directory references
+     */
+    public synchronized Set<T> keySet() {
+        return new HashSet<T>(impl.keySet());
     }
 
     /**
      * @param reference Absolute path
      * @return True if the directory listing of this path is cached
      */
-    public boolean containsKey(final T reference) {
+    public synchronized boolean containsKey(final T reference) {
+        if(null == reference) {
+            return false;
+        }
         return impl.containsKey(reference);
     }
 
@@ -73,27 +107,41 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return The previously cached directory listing
      */
     public AttributedList<T> remove(final T reference) {
-        final AttributedList<T> removed = impl.remove(reference);
-        if(null == removed) {
-            // Not previously in cache
+        if(null == reference) {
             return AttributedList.emptyList();
         }
-        return removed;
+        final Entry<T> removed;
+        synchronized(this) {
+            removed = impl.remove(reference);
+            if(null == removed) {
+                // Not previously in cache
+                return AttributedList.emptyList();
+            }
+            count -= removed.size;
+        }
+        return removed.children;
     }
 
     /**
      * @param reference Absolute path
      * @return An empty list if no cached file listing is available
-     * @throws java.util.ConcurrentModificationException If the caller is iterating of the cache himself
-     *                                                   and requests a new filter here.
      */
     public AttributedList<T> get(final T reference) {
-        AttributedList<T> children = impl.get(reference);
-        if(null == children) {
+        final Entry<T> entry;
+        synchronized(this) {
+            entry = null == reference ? null : impl.get(reference);
+            if(null != entry) {
+                // Children may have been added after the listing was cached
+                this.weigh(entry);
+            }
+        }
+        if(null == entry) {
+            misses.incrementAndGet();
             log.warn(String.format("No cache for %s", reference));
             return AttributedList.emptyList();
         }
-        return children;
+        hits.incrementAndGet();
+        return entry.children;
     }
 
     /**
@@ -102,10 +150,61 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return Previous cached version
      */
     public AttributedList<T> put(final T reference, final AttributedList<T> children) {
+        if(0 == size) {
+            return AttributedList.emptyList();
+        }
         if(log.isInfoEnabled()) {
             log.info(String.format("Caching %s", reference));
         }
-        return impl.put(reference, children);
+        final Entry<T> entry = new Entry<T>(children);
+        final Entry<T> previous;
+        synchronized(this) {
+            previous = impl.put(reference, entry);
+            count += entry.size;
+            if(null != previous) {
+                count -= previous.size;
+            }
+            if(impl.size() > size || count > limit) {
+                this.evict(reference);
+            }
+        }
+        if(null == previous) {
+            return null;
+        }
+        return previous.children;
+    }
+
+    /**
+     * Remove least recently used directory listings until within limits
+     *
+     * @param retain Directory listing never evicted
+     */
+    private void evict(final T retain) {
+        for(Iterator<Map.Entry<T, Entry<T>>> iter = impl.entrySet().iterator(); iter.hasNext(); ) {
+            if(impl.size() <= size && count <= limit) {
+                break;
+            }
+            final Map.Entry<T, Entry<T>> candidate = iter.next();
+            if(candidate.getKey().equals(retain)) {
+                continue;
+            }
+            iter.remove();
+            this.weigh(candidate.getValue());
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Evict %s with %d children", candidate.getKey(), candidate.getValue().size));
+            }
+            count -= candidate.getValue().size;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Update number of children counted for entry
+     */
+    private void weigh(final Entry<T> entry) {
+        final long size = entry.weight();
+        count += size - entry.size;
+        entry.size = size;
     }
 
     /**
@@ -144,14 +243,69 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Clearing cache %s", this.toString()));
         }
-        impl.clear();
+        synchronized(this) {
+            impl.clear();
+            count = 0L;
+        }
+    }
+
+    /**
+     * @return Number of lookups with a cached directory listing
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of lookups without a cached directory listing
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Number of directory listings removed to stay within limits
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return Number of children in all cached directory listings when cached
+     */
+    public synchronized long getCount() {
+        return count;
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", children=").append(this.getCount());
+        sb.append(", hits=").append(hits.get());
+        sb.append(", misses=").append(misses.get());
+        sb.append(", evictions=").append(evictions.get());
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Entry<T extends Referenceable> {
+        private final AttributedList<T> children;
+        /**
+         * Number of children including hidden files when last weighed
+         */
+        private long size;
+
+        public Entry(final AttributedList<T> children) {
+            this.children = children;
+            this.size = this.weight();
+        }
+
+        /**
+         * @return Current number of children including hidden files
+         */
+        private long weight() {
+            return children.size() + children.attributes().getHidden().size();
+        }
+    }
 }
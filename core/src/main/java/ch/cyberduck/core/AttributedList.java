@@ -20,17 +20,20 @@ package ch.cyberduck.core;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 
 /**
- * A sortable list with a map to lookup values by key.
+ * A sortable list with a map to lookup values by key. Appending is amortized constant time and lookup by reference
+ * uses a hash index built on demand. Iterators and {@link #toList()} return an immutable snapshot that is shared
+ * by readers until the list is modified. The index is rebuilt on the first lookup after the list was modified.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -52,8 +55,21 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
+    /**
+     * Guarded by itself
+     */
     private final List<E> impl
-        = new CopyOnWriteArrayList<>();
+        = new ArrayList<>();
+
+    /**
+     * Position of first occurrence of element. Null until requested or after a modification other than append.
+     */
+    private Map<E, Integer> index;
+
+    /**
+     * Immutable copy for readers. Null after modification.
+     */
+    private volatile List<E> snapshot;
 
     /**
      * Metadata of file listing
@@ -93,13 +109,23 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
 
     public boolean add(final E e) {
         if(attributes.getFilter().accept(e)) {
-            return impl.add(e);
+            synchronized(impl) {
+                impl.add(e);
+                if(index != null) {
+                    index.putIfAbsent(e, impl.size() - 1);
+                }
+                snapshot = null;
+            }
+            return true;
         }
         return attributes.getHidden().add(e);
     }
 
     public void add(final int index, final E e) {
-        impl.add(index, e);
+        synchronized(impl) {
+            impl.add(index, e);
+            this.modified();
+        }
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -110,33 +136,47 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     public E get(final int index) {
-        return impl.get(index);
+        synchronized(impl) {
+            return impl.get(index);
+        }
     }
 
     public E get(final E reference) {
-        final int index = impl.indexOf(reference);
-        if(-1 == index) {
-            return null;
+        synchronized(impl) {
+            final int index = this.indexOf(reference);
+            if(-1 == index) {
+                return null;
+            }
+            return impl.get(index);
         }
-        return impl.get(index);
     }
 
     public void set(final int i, final E e) {
-        impl.set(i, e);
+        synchronized(impl) {
+            impl.set(i, e);
+            this.modified();
+        }
     }
 
+    /**
+     * @return Iterator over snapshot of list not reflecting later modifications
+     */
     @Override
     public Iterator<E> iterator() {
-        return impl.iterator();
+        return this.toList().iterator();
+    }
+
+    /**
+     * Invalidate index and snapshot after modification
+     */
+    private void modified() {
+        index = null;
+        snapshot = null;
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
-     *
      * @param comparator The comparator to use
      * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
      */
     private void doSort(final Comparator<E> comparator) {
         if(null == comparator) {
@@ -145,7 +185,10 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Sort list %s with comparator %s", this, comparator));
         }
-        Collections.sort(impl, comparator);
+        synchronized(impl) {
+            impl.sort(comparator);
+            this.modified();
+        }
     }
 
     /**
@@ -187,23 +230,26 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
             // Add previously hidden files to children
-            final List<E> hidden = attributes.getHidden();
-            if(!hidden.isEmpty()) {
-                impl.addAll(hidden);
-                // Clear the previously set of hidden files
-                hidden.clear();
-            }
-            impl.removeIf(new Predicate<E>() {
-                @Override
-                public boolean test(final E e) {
-                    final boolean accept = filter.accept(e);
-                    if(!accept) {
-                        // Child not accepted by filter; add to cached hidden files
-                        attributes.addHidden(e);
-                    }
-                    return !accept;
+            synchronized(impl) {
+                final List<E> hidden = attributes.getHidden();
+                if(!hidden.isEmpty()) {
+                    impl.addAll(hidden);
+                    // Clear the previously set of hidden files
+                    hidden.clear();
                 }
-            });
+                impl.removeIf(new Predicate<E>() {
+                    @Override
+                    public boolean test(final E e) {
+                        final boolean accept = filter.accept(e);
+                        if(!accept) {
+                            // Child not accepted by filter; add to cached hidden files
+                            attributes.addHidden(e);
+                        }
+                        return !accept;
+                    }
+                });
+                this.modified();
+            }
             // Saving last filter
             attributes.setFilter(filter);
             // Sort again because the list has changed
@@ -217,45 +263,109 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      */
     public void clear() {
         attributes.clear();
-        impl.clear();
+        synchronized(impl) {
+            impl.clear();
+            this.modified();
+        }
     }
 
     public boolean isEmpty() {
-        return impl.isEmpty();
+        synchronized(impl) {
+            return impl.isEmpty();
+        }
     }
 
     public int size() {
-        return impl.size();
+        synchronized(impl) {
+            return impl.size();
+        }
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return this.indexOf(e) != -1;
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        for(E e : this.toList()) {
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final List<E> list = this.toList();
+        return (E[]) list.toArray(new Referenceable[list.size()]);
     }
 
+    /**
+     * @return Immutable snapshot of list
+     */
     public List<E> toList() {
-        return impl;
+        List<E> copy = snapshot;
+        if(null == copy) {
+            synchronized(impl) {
+                copy = snapshot;
+                if(null == copy) {
+                    snapshot = copy = Collections.unmodifiableList(new ArrayList<E>(impl));
+                }
+            }
+        }
+        return copy;
     }
 
     public int indexOf(final E e) {
-        return impl.indexOf(e);
+        synchronized(impl) {
+            if(null == index) {
+                this.reindex();
+            }
+            final Integer position = index.get(e);
+            if(null == position) {
+                return -1;
+            }
+            if(Objects.equals(impl.get(position), e)) {
+                return position;
+            }
+            // Identity of indexed element changed while contained
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Rebuild index of %s with stale entry for %s", this, e));
+            }
+            this.reindex();
+            final Integer found = index.get(e);
+            return null == found ? -1 : found;
+        }
+    }
+
+    /**
+     * Build index with position of first occurrence of elements
+     */
+    private void reindex() {
+        index = new HashMap<>(impl.size() * 4 / 3 + 1);
+        for(int i = 0; i < impl.size(); i++) {
+            index.putIfAbsent(impl.get(i), i);
+        }
     }
 
     public boolean remove(final E e) {
-        return impl.remove(e);
+        synchronized(impl) {
+            if(impl.remove(e)) {
+                this.modified();
+                return true;
+            }
+            return false;
+        }
     }
 
     public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+        synchronized(impl) {
+            if(impl.removeAll(e)) {
+                this.modified();
+                return true;
+            }
+            return false;
+        }
     }
 
     @Override
@@ -267,11 +377,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             return false;
         }
         final AttributedList<?> that = (AttributedList<?>) o;
-        return Objects.equals(impl, that.impl);
+        return Objects.equals(this.toList(), that.toList());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impl);
+        return Objects.hash(this.toList());
     }
 }
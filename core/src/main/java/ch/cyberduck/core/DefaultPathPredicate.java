@@ -27,6 +27,12 @@ import java.util.EnumSet;
  */
 public class DefaultPathPredicate implements CacheReference<Path> {
 
+    /**
+     * Types not taken into account for comparisons
+     */
+    static final EnumSet<Path.Type> IGNORED = EnumSet.of(Path.Type.placeholder, Path.Type.volume,
+            Path.Type.encrypted, Path.Type.decrypted, Path.Type.vault, Path.Type.upload);
+
     private final Path file;
 
     private final PathContainerService containerService
@@ -38,14 +44,15 @@ public class DefaultPathPredicate implements CacheReference<Path> {
 
     public String attributes() {
         String qualifier = StringUtils.EMPTY;
-        if(StringUtils.isNotBlank(file.attributes().getRegion())) {
+        // Read without allocating attributes
+        if(StringUtils.isNotBlank(file.getRegion())) {
             if(containerService.isContainer(file)) {
-                qualifier += file.attributes().getRegion();
+                qualifier += file.getRegion();
             }
         }
         if(file.isFile()) {
-            if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
-                qualifier += file.attributes().getVersionId();
+            if(StringUtils.isNotBlank(file.getVersionId())) {
+                qualifier += file.getVersionId();
             }
         }
         return qualifier;
@@ -53,18 +60,17 @@ public class DefaultPathPredicate implements CacheReference<Path> {
 
     protected String type() {
         final EnumSet<Path.Type> types = EnumSet.copyOf(file.getType());
-        types.remove(Path.Type.placeholder);
-        types.remove(Path.Type.volume);
-        types.remove(Path.Type.encrypted);
-        types.remove(Path.Type.decrypted);
-        types.remove(Path.Type.vault);
-        types.remove(Path.Type.upload);
+        types.removeAll(IGNORED);
         return String.valueOf(types);
     }
 
+    /**
+     * @return Hash code cached by path
+     * @see Path#hashCode()
+     */
     @Override
     public int hashCode() {
-        return this.toString().hashCode();
+        return file.hashCode();
     }
 
     /**
@@ -0,0 +1,234 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Identifiers of files by path for protocols addressing files by identifier instead of path. Shared by all
+ * features of a session to resolve identifiers without a remote request. Populated from listings and replies
+ * when files are created and invalidated when files are deleted or moved.
+ */
+public final class FileidCache {
+    private static final Logger log = Logger.getLogger(FileidCache.class);
+
+    /**
+     * Identifiers by absolute path with trailing delimiter for directories
+     */
+    private final com.google.common.cache.Cache<String, String> ids;
+
+    /**
+     * Keys of children by key of parent directory including directories without cached identifier
+     * with descendants cached. Guarded by this.
+     */
+    private final Map<String, Set<String>> children = new HashMap<String, Set<String>>();
+
+    public FileidCache() {
+        this(PreferencesFactory.get().getLong("fileid.cache.size"));
+    }
+
+    public FileidCache(final long size) {
+        this.ids = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .recordStats()
+                .removalListener(new RemovalListener<String, String>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<String, String> notification) {
+                        if(RemovalCause.REPLACED == notification.getCause()) {
+                            return;
+                        }
+                        synchronized(FileidCache.this) {
+                            unindex(notification.getKey());
+                        }
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @param file File
+     * @return Cached identifier or null if not found
+     */
+    public String get(final Path file) {
+        return ids.getIfPresent(this.key(file));
+    }
+
+    /**
+     * @param file File
+     * @param id   Identifier of file on server
+     */
+    public synchronized void put(final Path file, final String id) {
+        if(StringUtils.isBlank(id)) {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Cache identifier %s for %s", id, file));
+        }
+        final String key = this.key(file);
+        ids.put(key, id);
+        this.index(key);
+    }
+
+    /**
+     * Remove identifier of file no longer found at path. For directories all identifiers of descendants are removed.
+     *
+     * @param file File deleted or moved
+     */
+    public synchronized void remove(final Path file) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Remove identifier for %s", file));
+        }
+        this.remove(this.key(file));
+    }
+
+    /**
+     * Remove identifiers of children no longer found in directory including all their descendants
+     *
+     * @param directory Directory listed
+     * @param children  Complete listing of directory
+     */
+    public synchronized void retain(final Path directory, final AttributedList<Path> children) {
+        final Set<String> cached = this.children.get(this.key(directory));
+        if(null == cached) {
+            return;
+        }
+        final Set<String> found = new HashSet<String>();
+        for(Path child : children) {
+            found.add(this.key(child));
+        }
+        for(String key : new ArrayList<String>(cached)) {
+            if(!found.contains(key)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Remove identifier for %s missing in listing of %s", key, directory));
+                }
+                this.remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Clear file identifier cache %s", ids.stats()));
+        }
+        ids.invalidateAll();
+        children.clear();
+    }
+
+    /**
+     * Remove identifier of key and all descendants
+     */
+    private void remove(final String key) {
+        final Set<String> descendants = children.remove(key);
+        if(null != descendants) {
+            for(String descendant : descendants) {
+                this.remove(descendant);
+            }
+        }
+        ids.invalidate(key);
+        this.unindex(key);
+    }
+
+    /**
+     * Add key to children of its parent and parent directories up to the root
+     */
+    private void index(final String key) {
+        String child = key;
+        String parent = this.parent(child);
+        while(null != parent) {
+            Set<String> keys = children.get(parent);
+            if(null == keys) {
+                keys = new HashSet<String>();
+                children.put(parent, keys);
+            }
+            if(!keys.add(child)) {
+                // Parent already indexed
+                return;
+            }
+            child = parent;
+            parent = this.parent(child);
+        }
+    }
+
+    /**
+     * Remove key from children of its parent and parent directories no longer with cached identifier or descendants
+     */
+    private void unindex(final String key) {
+        String child = key;
+        String parent = this.parent(child);
+        while(null != parent) {
+            if(children.containsKey(child) || ids.asMap().containsKey(child)) {
+                return;
+            }
+            final Set<String> keys = children.get(parent);
+            if(null == keys) {
+                return;
+            }
+            keys.remove(child);
+            if(!keys.isEmpty()) {
+                return;
+            }
+            children.remove(parent);
+            child = parent;
+            parent = this.parent(child);
+        }
+    }
+
+    /**
+     * @param key Key of file or directory with trailing delimiter
+     * @return Key of parent directory or null for root
+     */
+    private String parent(final String key) {
+        final int end = key.endsWith(String.valueOf(Path.DELIMITER)) ? key.length() - 2 : key.length() - 1;
+        if(end < 0) {
+            return null;
+        }
+        final int delimiter = key.lastIndexOf(Path.DELIMITER, end);
+        if(-1 == delimiter) {
+            return null;
+        }
+        return key.substring(0, delimiter + 1);
+    }
+
+    private String key(final Path file) {
+        if(file.isDirectory() && !file.isRoot()) {
+            return String.format("%s%s", file.getAbsolute(), Path.DELIMITER);
+        }
+        return file.getAbsolute();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FileidCache{");
+        sb.append("size=").append(ids.size());
+        sb.append(", stats=").append(ids.stats());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -22,6 +22,7 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.FileChannelOutputStream;
 import ch.cyberduck.core.io.LocalRepeatableFileInputStream;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
@@ -41,13 +42,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.Objects;
@@ -55,6 +62,9 @@ import java.util.Objects;
 public class Local extends AbstractPath implements Referenceable, Serializable {
     private static final Logger log = Logger.getLogger(Local.class);
 
+    private static final boolean posix
+        = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
     /**
      * Absolute path in local file system
      */
@@ -139,6 +149,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(null != snapshot) {
+            return snapshot.isDirectory();
+        }
         if(this.exists()) {
             return Files.isDirectory(Paths.get(path));
         }
@@ -151,6 +165,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final BasicFileAttributes snapshot = this.attributes().getSnapshot();
+        if(null != snapshot) {
+            return snapshot.isRegularFile();
+        }
         if(this.exists()) {
             return Files.isRegularFile(Paths.get(path));
         }
@@ -163,6 +181,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return true if the file is a symbolic link.
      */
     public boolean isSymbolicLink() {
+        if(null != this.attributes().getSnapshot()) {
+            // No snapshot is taken for symbolic links
+            return false;
+        }
         return Files.isSymbolicLink(Paths.get(path));
     }
 
@@ -188,6 +210,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void mkdir() throws AccessDeniedException {
+        this.attributes().refresh();
         try {
             Files.createDirectories(Paths.get(path));
         }
@@ -201,6 +224,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * Delete the file
      */
     public void delete() throws AccessDeniedException, NotfoundException {
+        this.attributes().refresh();
         try {
             Files.delete(Paths.get(path));
         }
@@ -223,8 +247,13 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
                 return filter.accept(entry.getFileName().toString());
             }
         })) {
+            final boolean snapshot = PreferencesFactory.get().getBoolean("local.list.snapshot");
             for(Path entry : stream) {
-                children.add(LocalFactory.get(entry.toString()));
+                final Local child = LocalFactory.get(entry.toString());
+                if(snapshot) {
+                    this.snapshot(child, entry);
+                }
+                children.add(child);
             }
         }
         catch(IOException e) {
@@ -237,6 +266,24 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         return this.list(new NullFilter<>());
     }
 
+    /**
+     * Read attributes of directory entry with a single call to serve from child until refreshed
+     */
+    private void snapshot(final Local child, final Path entry) {
+        try {
+            final Class<? extends BasicFileAttributes> type = posix ? PosixFileAttributes.class : BasicFileAttributes.class;
+            final BasicFileAttributes attributes = Files.readAttributes(entry, type, LinkOption.NOFOLLOW_LINKS);
+            if(attributes.isSymbolicLink()) {
+                // Attributes of target are read when requested
+                return;
+            }
+            child.attributes().snapshot(attributes);
+        }
+        catch(IOException | UnsupportedOperationException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", entry, e.getMessage()));
+        }
+    }
+
     @Override
     public String getAbsolute() {
         return path;
@@ -302,6 +349,8 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void rename(final Local renamed) throws AccessDeniedException {
+        this.attributes().refresh();
+        renamed.attributes().refresh();
         try {
             Files.move(Paths.get(path), Paths.get(renamed.getAbsolute()), StandardCopyOption.REPLACE_EXISTING);
             path = renamed.getAbsolute();
@@ -327,6 +376,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
             OutputStream out = null;
             try {
                 in = this.getInputStream();
+                copy.attributes().refresh();
                 out = copy.getOutputStream(options.append);
                 IOUtils.copy(in, out);
             }
@@ -395,6 +445,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public OutputStream getOutputStream(final boolean append) throws AccessDeniedException {
+        this.attributes().refresh();
         try {
             return new FileOutputStream(new File(path), append);
         }
@@ -403,6 +454,21 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         }
     }
 
+    /**
+     * @param position Offset in file to start writing at. Existing content is not truncated.
+     * @return Stream writing to region of file starting at position
+     */
+    public OutputStream getOutputStream(final long position) throws AccessDeniedException {
+        this.attributes().refresh();
+        try {
+            return new FileChannelOutputStream(FileChannel.open(Paths.get(path),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE), position);
+        }
+        catch(IOException | InvalidPathException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
     public Object lock(final boolean interactive) throws AccessDeniedException {
         return null;
     }
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
@@ -39,21 +40,45 @@ public class LocalAttributes extends Attributes {
     private final String path;
     private Checksum checksum = Checksum.NONE;
 
+    /**
+     * Attributes read when listing parent directory or null to read from file system
+     */
+    private volatile BasicFileAttributes snapshot;
+
     public LocalAttributes(final String path) {
         this.path = path;
     }
 
+    /**
+     * Serve size, timestamps, type and permissions from attributes already read until refreshed
+     *
+     * @param attributes Attributes of file read with a single call
+     */
+    public void snapshot(final BasicFileAttributes attributes) {
+        this.snapshot = attributes;
+    }
+
+    /**
+     * Discard snapshot of attributes to read current values from file system
+     */
+    public void refresh() {
+        this.snapshot = null;
+    }
+
+    /**
+     * @return Attributes from snapshot or null if not available
+     */
+    protected BasicFileAttributes getSnapshot() {
+        return snapshot;
+    }
+
     @Override
     public long getModificationDate() {
-        if(Files.exists(Paths.get(path))) {
-            try {
-                return Files.getLastModifiedTime(Paths.get(path)).toMillis();
-            }
-            catch(IOException e) {
-                log.warn(String.format("Failure getting timestamp of %s. %s", path, e.getMessage()));
-            }
+        final BasicFileAttributes attributes = this.read();
+        if(null == attributes) {
+            return -1;
         }
-        return -1;
+        return attributes.lastModifiedTime().toMillis();
     }
 
     /**
@@ -76,6 +101,7 @@ public class LocalAttributes extends Attributes {
         if(timestamp < 0) {
             return;
         }
+        this.refresh();
         try {
             Files.setLastModifiedTime(Paths.get(path), FileTime.fromMillis(timestamp));
         }
@@ -86,21 +112,40 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public long getSize() {
-        if(Files.exists(Paths.get(path))) {
-            try {
-                return Files.size(Paths.get(path));
-            }
-            catch(IOException e) {
-                log.warn(String.format("Failure getting size of %s. %s", path, e.getMessage()));
-            }
+        final BasicFileAttributes attributes = this.read();
+        if(null == attributes) {
+            return -1;
+        }
+        return attributes.size();
+    }
+
+    /**
+     * @return Snapshot or attributes read from file system with a single call. Null if not found.
+     */
+    private BasicFileAttributes read() {
+        final BasicFileAttributes attributes = snapshot;
+        if(null != attributes) {
+            return attributes;
+        }
+        try {
+            return Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+        }
+        catch(NoSuchFileException e) {
+            return null;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", path, e.getMessage()));
+            return null;
         }
-        return -1;
     }
 
     @Override
     public Permission getPermission() {
+        final BasicFileAttributes attributes = snapshot;
+        if(attributes instanceof PosixFileAttributes) {
+            return new LocalPermission(PosixFilePermissions.toString(((PosixFileAttributes) attributes).permissions()));
+        }
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
-            final BasicFileAttributes attributes;
             try {
                 return new LocalPermission(PosixFilePermissions.toString(Files.readAttributes(Paths.get(path), PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS).permissions()));
             }
@@ -112,6 +157,7 @@ public class LocalAttributes extends Attributes {
     }
 
     public void setPermission(final Permission permission) throws AccessDeniedException {
+        this.refresh();
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
             try {
                 Files.setPosixFilePermissions(Paths.get(path), PosixFilePermissions.fromString(permission.getSymbol()));
@@ -182,6 +228,7 @@ public class LocalAttributes extends Attributes {
         final StringBuilder sb = new StringBuilder("LocalAttributes{");
         sb.append("path='").append(path).append('\'');
         sb.append(", checksum=").append(checksum);
+        sb.append(", snapshot=").append(null != snapshot);
         sb.append('}');
         return sb.toString();
     }
@@ -20,6 +20,8 @@ package ch.cyberduck.core;
 
 import ch.cyberduck.core.serializer.Serializer;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.EnumSet;
 import java.util.Objects;
 
@@ -30,13 +32,14 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     public static final char DELIMITER = '/';
     /**
-     * Reference to the parent
+     * Reference to the parent. Created on demand for paths initialized with an absolute path. Not shared with
+     * siblings initialized with an absolute path as the type and attributes of the parent are mutable.
      */
     protected Path parent;
     /**
      * The absolute remote path
      */
-    private String path;
+    private final String path;
     /**
      * An absolute reference here the symbolic link is pointing to
      */
@@ -48,9 +51,14 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
             = EnumSet.noneOf(Type.class);
 
     /**
-     * Attributes denoting this path
+     * Attributes denoting this path. Allocated on first access.
      */
-    private final PathAttributes attributes;
+    private volatile PathAttributes attributes;
+
+    /**
+     * Cached identity for equality and hash code. Recomputed when type, region or version changes.
+     */
+    private Identity identity;
 
     /**
      * @param parent the absolute directory
@@ -59,9 +67,8 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     public Path(final Path parent, final String name, final EnumSet<Type> type) {
         this.type = type;
-        this.attributes = new PathAttributes();
-        this.attributes.setRegion(parent.attributes.getRegion());
-        this._setPath(parent, name);
+        this.parent = parent;
+        this.path = null == parent ? name : join(parent.getAbsolute(), name);
     }
 
     /**
@@ -70,8 +77,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     public Path(final String absolute, final EnumSet<Type> type) {
         this.type = type;
-        this.attributes = new PathAttributes();
-        this.setPath(absolute);
+        this.path = normalize(absolute);
     }
 
     /**
@@ -81,7 +87,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     public Path(final String absolute, final EnumSet<Type> type, final PathAttributes attributes) {
         this.type = type;
         this.attributes = attributes;
-        this.setPath(absolute);
+        this.path = normalize(absolute);
     }
 
     /**
@@ -92,7 +98,8 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     public Path(final Path parent, final String name, final EnumSet<Type> type, final PathAttributes attributes) {
         this.type = type;
         this.attributes = attributes;
-        this._setPath(parent, name);
+        this.parent = parent;
+        this.path = null == parent ? name : join(parent.getAbsolute(), name);
     }
 
     @Override
@@ -102,43 +109,29 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         if(symlink != null) {
             dict.setObjectForKey(symlink, "Symbolic Link");
         }
-        dict.setObjectForKey(attributes, "Attributes");
+        dict.setObjectForKey(this.attributes(), "Attributes");
         return dict.getSerialized();
     }
 
-    private void setPath(final String absolute) {
+    /**
+     * @return Normalized absolute path
+     */
+    private static String normalize(final String absolute) {
         if(absolute.equals(String.valueOf(Path.DELIMITER))) {
-            this._setPath(null, PathNormalizer.name(absolute));
-        }
-        else {
-            final Path parent = new Path(PathNormalizer.parent(PathNormalizer.normalize(absolute, true), Path.DELIMITER),
-                    EnumSet.of(Type.directory));
-            parent.attributes().setRegion(attributes.getRegion());
-            if(parent.isRoot()) {
-                parent.setType(EnumSet.of(Type.volume, Type.directory));
-            }
-            this._setPath(parent, PathNormalizer.name(absolute));
+            return PathNormalizer.name(absolute);
         }
+        return join(PathNormalizer.parent(PathNormalizer.normalize(absolute, true), Path.DELIMITER),
+                PathNormalizer.name(absolute));
     }
 
-    private void _setPath(final Path parent, final String name) {
-        this.parent = parent;
-        if(null == parent) {
-            this.path = name;
+    private static String join(final String parent, final String name) {
+        if(String.valueOf(DELIMITER).equals(parent)) {
+            return parent + name;
         }
-        else {
-            if(parent.isRoot()) {
-                this.path = parent.getAbsolute() + name;
-            }
-            else {
-                if(name.startsWith(String.valueOf(DELIMITER))) {
-                    this.path = parent.getAbsolute() + name;
-                }
-                else {
-                    this.path = parent.getAbsolute() + Path.DELIMITER + name;
-                }
-            }
+        if(name.startsWith(String.valueOf(DELIMITER))) {
+            return parent + name;
         }
+        return parent + Path.DELIMITER + name;
     }
 
     @Override
@@ -179,13 +172,54 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         if(this.isRoot()) {
             return this;
         }
+        if(null == parent) {
+            final Path parent = new Path(PathNormalizer.parent(path, Path.DELIMITER), EnumSet.of(Type.directory));
+            parent.attributes().setRegion(this.getRegion());
+            if(parent.isRoot()) {
+                parent.setType(EnumSet.of(Type.volume, Type.directory));
+            }
+            this.parent = parent;
+        }
         return parent;
     }
 
     public PathAttributes attributes() {
+        PathAttributes attributes = this.attributes;
+        if(null == attributes) {
+            synchronized(this) {
+                attributes = this.attributes;
+                if(null == attributes) {
+                    attributes = new PathAttributes();
+                    attributes.setRegion(null == parent ? null : parent.getRegion());
+                    this.attributes = attributes;
+                }
+            }
+        }
         return attributes;
     }
 
+    /**
+     * @return Region without allocating attributes
+     */
+    String getRegion() {
+        final PathAttributes attributes = this.attributes;
+        if(null == attributes) {
+            return null == parent ? null : parent.getRegion();
+        }
+        return attributes.getRegion();
+    }
+
+    /**
+     * @return Version without allocating attributes
+     */
+    String getVersionId() {
+        final PathAttributes attributes = this.attributes;
+        if(null == attributes) {
+            return null;
+        }
+        return attributes.getVersionId();
+    }
+
     /**
      * @return the path relative to its parent directory
      */
@@ -220,25 +254,41 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
     }
 
     /**
-     * @return The hashcode of #getAbsolute()
-     * @see #getAbsolute()
+     * @return Identity for current type and attributes
+     */
+    private Identity identity() {
+        final Identity cached = identity;
+        if(cached != null && cached.matches(this)) {
+            return cached;
+        }
+        return identity = new Identity(this);
+    }
+
+    /**
+     * @return The hashcode of the type, region and version qualifier and absolute path
+     * @see DefaultPathPredicate#hashCode()
      */
     @Override
     public int hashCode() {
-        return new DefaultPathPredicate(this).hashCode();
+        return this.identity().hash;
     }
 
     /**
      * @param other Path to compare with
-     * @return true if the other path has the same absolute path name
+     * @return true if the other path has the same absolute path name, type and qualifier
+     * @see DefaultPathPredicate
      */
     @Override
     public boolean equals(Object other) {
+        if(this == other) {
+            return true;
+        }
         if(null == other) {
             return false;
         }
         if(other instanceof Path) {
-            return new DefaultPathPredicate(this).equals(new DefaultPathPredicate((Path) other));
+            final Path path = (Path) other;
+            return this.path.equals(path.path) && this.identity().equals(path.identity());
         }
         return false;
     }
@@ -283,4 +333,82 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Components compared by {@link DefaultPathPredicate} captured with the values they were derived from
+     */
+    private static final class Identity {
+        /**
+         * Bit set of ordinals of types compared
+         */
+        private final int types;
+        private final String region;
+        private final String version;
+        /**
+         * Region qualifies path
+         */
+        private final boolean container;
+        private final int hash;
+
+        private Identity(final Path file) {
+            this.types = mask(file.type);
+            this.region = file.getRegion();
+            this.version = file.getVersionId();
+            this.container = StringUtils.isNotBlank(region) && new PathContainerService().isContainer(file);
+            int hash = file.getAbsolute().hashCode();
+            hash = 31 * hash + types;
+            hash = 31 * hash + Objects.hashCode(this.region());
+            hash = 31 * hash + Objects.hashCode(this.version());
+            this.hash = hash;
+        }
+
+        /**
+         * @return False if type or attributes of file have changed
+         */
+        private boolean matches(final Path file) {
+            return types == mask(file.type)
+                    && Objects.equals(region, file.getRegion())
+                    && Objects.equals(version, file.getVersionId());
+        }
+
+        /**
+         * @return Region if qualifying path
+         */
+        private String region() {
+            return container ? region : null;
+        }
+
+        /**
+         * @return Version if qualifying file
+         */
+        private String version() {
+            if((types & (1 << Type.file.ordinal())) == 0) {
+                return null;
+            }
+            return StringUtils.isNotBlank(version) ? version : null;
+        }
+
+        private static int mask(final EnumSet<Type> type) {
+            int mask = 0;
+            for(Type t : type) {
+                if(!DefaultPathPredicate.IGNORED.contains(t)) {
+                    mask |= 1 << t.ordinal();
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Must only be compared with identity of path with same absolute path
+         */
+        private boolean equals(final Identity other) {
+            if(this == other) {
+                return true;
+            }
+            return hash == other.hash
+                    && types == other.types
+                    && Objects.equals(this.region(), other.region())
+                    && Objects.equals(this.version(), other.version());
+        }
+    }
+}
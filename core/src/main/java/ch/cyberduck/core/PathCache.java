@@ -34,6 +34,14 @@ public class PathCache extends AbstractCache<Path> {
         super(size);
     }
 
+    /**
+     * @param size  Maximum number of directory listings
+     * @param limit Maximum number of files in all directory listings
+     */
+    public PathCache(final int size, final long limit) {
+        super(size, limit);
+    }
+
     @Override
     public CacheReference key(final Path file) {
         return new DefaultPathPredicate(file);
@@ -18,10 +18,10 @@ package ch.cyberduck.core;
 import org.apache.log4j.Logger;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReverseLookupCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(ReverseLookupCache.class);
@@ -31,16 +31,11 @@ public class ReverseLookupCache<T extends Referenceable> implements Cache<T> {
 
     public ReverseLookupCache(final Cache<T> proxy, final int size) {
         this.proxy = proxy;
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
-        }
-        else if(size == 0) {
+        if(size == 0) {
             reverse = Collections.emptyMap();
         }
         else {
-            // Will inflate to the given size
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
+            reverse = new ConcurrentHashMap<CacheReference, T>();
         }
     }
 
@@ -92,10 +92,15 @@ public class SessionPoolFactory {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Create new pooled connection pool for %s", bookmark));
                 }
-                return new DefaultSessionPool(connect, x509TrustManager, x509KeyManager, registry, cache, transcript, bookmark)
+                final DefaultSessionPool pool = new DefaultSessionPool(connect, x509TrustManager, x509KeyManager, registry, cache, transcript, bookmark)
                     .withMinIdle(PreferencesFactory.get().getInteger("connection.pool.minidle"))
                     .withMaxIdle(PreferencesFactory.get().getInteger("connection.pool.maxidle"))
                     .withMaxTotal(PreferencesFactory.get().getInteger("connection.pool.maxtotal"));
+                if(Arrays.asList(usage).contains(Usage.transfer) && PreferencesFactory.get().getBoolean("connection.pool.prewarm")) {
+                    // Open connections for concurrent transfers in parallel
+                    pool.withPrewarm(PreferencesFactory.get().getInteger("queue.connections.limit"));
+                }
+                return pool;
         }
     }
 
@@ -25,7 +25,7 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ChecksumIndex;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.local.Application;
 import ch.cyberduck.core.local.ApplicationFinder;
@@ -163,7 +163,7 @@ public abstract class AbstractEditor implements Editor {
             public void cleanup(final Transfer download) {
                 // Save checksum before edit
                 try {
-                    checksum = ChecksumComputeFactory.get(HashAlgorithm.md5).compute(local.getInputStream(), new TransferStatus());
+                    checksum = ChecksumIndex.get(HashAlgorithm.md5).compute(local, new TransferStatus());
                 }
                 catch(BackgroundException e) {
                     log.warn(String.format("Error computing checksum for %s. %s", local, e.getDetail()));
@@ -214,7 +214,7 @@ public abstract class AbstractEditor implements Editor {
         try {
             listener.message(MessageFormat.format(
                     LocaleFactory.localizedString("Compute MD5 hash of {0}", "Status"), local.getName()));
-            current = ChecksumComputeFactory.get(HashAlgorithm.md5).compute(local.getInputStream(), new TransferStatus());
+            current = ChecksumIndex.get(HashAlgorithm.md5).compute(local, new TransferStatus());
         }
         catch(BackgroundException e) {
             log.warn(String.format("Error computing checksum for %s. %s", local, e.getDetail()));
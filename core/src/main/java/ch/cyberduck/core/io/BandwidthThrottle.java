@@ -1,15 +1,23 @@
 package ch.cyberduck.core.io;
 
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
 import org.apache.log4j.Logger;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Limits throughput of a stream to at most N bytes per T seconds.  Mutable and
- * thread-safe.<p>
+ * Limits throughput of streams to at most N bytes per second using a token bucket. Thread-safe and meant to be
+ * shared by all streams of a transfer to limit their aggregate rate.<p>
  * <p/>
  * In the following example, <tt>throttle</tt> is used to send the contents of
- * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N/T</tt> bytes per second:
+ * <tt>buf</tt> to <tt>out</tt> at no more than <tt>N</tt> bytes per second:
  * <pre>
- *      BandwidthThrottle throttle=new BandwidthThrottle(N, T);
+ *      BandwidthThrottle throttle=new BandwidthThrottle(N);
  *      OutputStream out=...;
  *      byte[] buf=...;
  *      for (int i=0; i<buf.length; ) {
@@ -19,102 +27,108 @@ import org.apache.log4j.Logger;
  *      }
  * </pre>
  * <p/>
- * This class works by allowing exactly N bytes to be sent every T seconds.  If
- * the number of bytes for a given window have been exceeded, subsequent calls
- * to request(..) will block.  The default value of T is 100 milliseconds.
- * Smaller window values T allow fairer bandwidth sharing and less noticeable
- * pauses but may decrease efficiency slightly.<p>
+ * The bucket fills with N bytes per second up to the burst size. Each request reserves its bytes in the order of
+ * arrival and sleeps outside of any lock until the bucket has recovered from the reservation. No single request
+ * is granted more than the burst size which lets concurrent streams take turns instead of one stream draining the
+ * bucket. Smaller burst sizes allow fairer bandwidth sharing and less noticeable pauses but may decrease
+ * efficiency slightly.<p>
  * <p/>
- * Note that throttles are <i>not</i> cumulative.  In the future, this may allow
- * enable fancier control.  Also, BandwidthThrottle may be able delegate to
- * other throttles.  This would allow, for example, a 15 KB/s Gnutella messaging
- * throttle, with no more than 10 KB/s devoted to uploads.<p>
- * <p/>
- * This implementation is based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
- * class from
- * the Freenet project.  It has been simplified and better documented.<p>
-
+ * A throttle may delegate to a parent throttle such as one shared by all transfers to the same host. Requests
+ * are then limited by both.
  */
 public final class BandwidthThrottle {
     private static final Logger log = Logger.getLogger(BandwidthThrottle.class);
 
+    private static final Map<String, BandwidthThrottle> hosts
+            = new ConcurrentHashMap<String, BandwidthThrottle>();
+
+    /**
+     * @param host Bookmark
+     * @return Throttle shared by all transfers to the same server or null if not limited
+     */
+    public static BandwidthThrottle get(final Host host) {
+        final float rate = PreferencesFactory.get().getFloat("queue.bandwidth.host.bytes");
+        if(rate < 0) {
+            return null;
+        }
+        final String key = new HostUrlProvider(false).get(host);
+        BandwidthThrottle throttle = hosts.get(key);
+        if(null == throttle) {
+            throttle = new BandwidthThrottle(rate);
+            final BandwidthThrottle existing = hosts.putIfAbsent(key, throttle);
+            if(null != existing) {
+                return existing;
+            }
+        }
+        return throttle;
+    }
+
     /**
-     * The number of windows per second.
+     * No throttling
      */
-    private static final int TICKS_PER_SECOND = 10;
+    public static final int UNLIMITED = -1;
+
     /**
-     * The value of T, in milliseconds.
+     * Bytes per second allowed
      */
-    private static final int MILLIS_PER_TICK = 1000 / TICKS_PER_SECOND;
+    private float rate = UNLIMITED;
 
     /**
-     * The bytes to send per tick.  Modified by setThrottle.
+     * Burst size in milliseconds of bandwidth at the current rate
      */
-    private volatile int bytesPerTick;
+    private final long burst;
 
     /**
-     * Whether or not we're only allowing bandwidth to be used every other
-     * second.
+     * Throttle to request granted bytes from additionally
      */
-    private volatile boolean switching = false;
+    private final BandwidthThrottle parent;
 
     /**
-     * The number of bytes remaining in this window.
+     * The number of bytes available in the bucket. Negative when already reserved by waiting requests.
      */
-    private int availableBytes;
+    private double available;
+
     /**
-     * The system time when the window is reset so more bytes can be sent.
+     * The system time in nanoseconds when the bucket was last filled
      */
-    private long nextTickTime;
+    private long timestamp = System.nanoTime();
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
      */
-    public BandwidthThrottle(float bytesPerSecond) {
-        this.setRate(bytesPerSecond);
+    public BandwidthThrottle(final float bytesPerSecond) {
+        this(bytesPerSecond, null);
     }
 
     /**
-     * Creates a new bandwidth throttle at the given throttle rate,
-     * only allowing bandwidth to be used every other second if
-     * switching is true.
-     * The default windows size T is used.  The bytes per windows N
-     * is calculated from bytesPerSecond.
-     *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
-     *                       (not milliseconds!)
-     * @param switching      true if we should only allow bandwidth to be used
-     *                       every other second.
+     * @param parent         Throttle shared with other transfers or null
      */
-    public BandwidthThrottle(float bytesPerSecond, boolean switching) {
-        this.setRate(bytesPerSecond);
-        this.setSwitching(switching);
-
+    public BandwidthThrottle(final float bytesPerSecond, final BandwidthThrottle parent) {
+        this(bytesPerSecond, PreferencesFactory.get().getLong("queue.bandwidth.burst.milliseconds"), parent);
     }
 
     /**
-     * No throttling
-     */
-    public static final int UNLIMITED = -1;
-
-    /**
-     * Bytes per second allowed
+     * @param bytesPerSecond the limits in bytes (not bits!) per second
+     * @param burst          Maximum number of bytes granted at once in milliseconds of bandwidth
+     * @param parent         Throttle shared with other transfers or null
      */
-    private float rate = UNLIMITED;
+    public BandwidthThrottle(final float bytesPerSecond, final long burst, final BandwidthThrottle parent) {
+        this.burst = Math.max(1L, burst);
+        this.parent = parent;
+        this.setRate(bytesPerSecond);
+    }
 
     /**
-     * Sets the throttle to the given throttle rate.  The default windows size
-     * T is used.  The bytes per windows N is calculated from bytesPerSecond.
+     * Sets the throttle to the given throttle rate.
      *
      * @param bytesPerSecond the limits in bytes (not bits!) per second
      *                       (not milliseconds!)
      */
-    public void setRate(float bytesPerSecond) {
+    public synchronized void setRate(final float bytesPerSecond) {
         if(bytesPerSecond < 0) {
             rate = UNLIMITED;
         }
@@ -123,49 +137,28 @@ public final class BandwidthThrottle {
                 log.debug(String.format("Set rate to %s bytes per second", bytesPerSecond));
             }
             rate = bytesPerSecond;
-            bytesPerTick = (int) (bytesPerSecond / TICKS_PER_SECOND);
-        }
-        if(switching) {
-            this.fixBytesPerTick(true);
+            // Start with full bucket
+            available = this.getBurst();
+            timestamp = System.nanoTime();
         }
     }
 
     /**
      * @return Transfer rate in bytes per second allowed by this throttle
      */
-    public float getRate() {
+    public synchronized float getRate() {
         return rate;
     }
 
-    /**
-     * Sets whether or not this throttle is switching bandwidth on/off.
-     */
-    public void setSwitching(boolean switching) {
-        log.debug("setSwitching:" + switching);
-        if(this.switching != switching) {
-            fixBytesPerTick(switching);
-        }
-        this.switching = switching;
+    public BandwidthThrottle getParent() {
+        return parent;
     }
 
     /**
-     * Modifies bytesPerTick to either be double or half of what it was.
-     * This is necessary because of the 'switching', which can effectively
-     * reduce or raise the amount of data transferred.
+     * @return Maximum number of bytes in bucket
      */
-    private void fixBytesPerTick(boolean raise) {
-        int newBytesPerTick = bytesPerTick;
-        if(raise) {
-            newBytesPerTick *= 2;
-        }
-        else {
-            newBytesPerTick /= 2;
-        }
-        if(newBytesPerTick < 0) // overflowed?
-        {
-            newBytesPerTick = Integer.MAX_VALUE;
-        }
-        bytesPerTick = newBytesPerTick;
+    private double getBurst() {
+        return Math.max(1d, (double) rate * burst / TimeUnit.SECONDS.toMillis(1));
     }
 
     /**
@@ -174,57 +167,55 @@ public final class BandwidthThrottle {
      *
      * @param desired the number of bytes the caller would like to send
      * @return the number of bytes the sender is expected to send, which
-     *         is always greater than one and less than or equal to desired
+     * is always greater than one and less than or equal to desired
      */
-    public synchronized int request(int desired) {
-        if(UNLIMITED == rate) {
-            return desired;
+    public int request(final int desired) {
+        final int granted = this.reserve(desired);
+        if(null == parent) {
+            return granted;
         }
-        waitForBandwidth();
-        int result = Math.min(desired, availableBytes);
-        availableBytes -= result;
-        return result;
+        return parent.request(granted);
     }
 
     /**
-     * Waits until data is _availableBytes.
-     */
-    private void waitForBandwidth() {
-        while(true) {
-            long now = System.currentTimeMillis();
-            updateWindow(now);
-            if(availableBytes != 0) {
-                break;
+     * Take bytes from bucket and wait until it has recovered if overdrawn
+     *
+     * @return Number of bytes granted
+     */
+    private int reserve(final int desired) {
+        final int granted;
+        final long wait;
+        synchronized(this) {
+            if(UNLIMITED == rate) {
+                return desired;
             }
-            try {
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
-                }
-                Thread.sleep(nextTickTime - now);
+            final long now = System.nanoTime();
+            final double burst = this.getBurst();
+            // Refill for elapsed time
+            available = Math.min(burst, available + (now - timestamp) * (double) rate / TimeUnit.SECONDS.toNanos(1));
+            timestamp = now;
+            granted = (int) Math.max(1L, Math.min(desired, (long) burst));
+            available -= granted;
+            if(available < 0) {
+                wait = (long) (-available / Math.max(1f, rate) * TimeUnit.SECONDS.toNanos(1));
             }
-            catch(InterruptedException e) {
-                log.error(e.getMessage(), e);
+            else {
+                wait = 0L;
             }
         }
-    }
-
-    /**
-     * Updates _availableBytes and _nextTickTime if possible.
-     */
-    private void updateWindow(long now) {
-        if(now >= nextTickTime) {
-            if(!switching || ((now / 1000) % 2) == 0) {
-                availableBytes = bytesPerTick;
-                nextTickTime = now + MILLIS_PER_TICK;
+        if(wait > 0) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Throttling bandwidth for %d milliseconds", TimeUnit.NANOSECONDS.toMillis(wait)));
             }
-            else {
-                availableBytes = 0;
-                // the next tick time is the time we'll hit
-                // the next second.
-                long diff = 1000 - (now % 1000);
-                nextTickTime = now + diff;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            catch(InterruptedException e) {
+                log.warn(String.format("Interrupted throttling bandwidth. %s", e.getMessage()));
+                Thread.currentThread().interrupt();
             }
         }
+        return granted;
     }
 
     @Override
@@ -236,7 +227,7 @@ public final class BandwidthThrottle {
             return false;
         }
         BandwidthThrottle that = (BandwidthThrottle) o;
-        if(Float.compare(that.rate, rate) != 0) {
+        if(Float.compare(that.getRate(), this.getRate()) != 0) {
             return false;
         }
         return true;
@@ -244,6 +235,7 @@ public final class BandwidthThrottle {
 
     @Override
     public int hashCode() {
+        final float rate = this.getRate();
         return (rate != +0.0f ? Float.floatToIntBits(rate) : 0);
     }
 }
\ No newline at end of file
@@ -29,6 +29,15 @@ public interface Buffer {
      */
     int write(byte[] chunk, Long offset) throws IOException;
 
+    /**
+     * @param chunk  Chunk to write to offset position
+     * @param off    Start offset in chunk
+     * @param len    Number of bytes to write from chunk
+     * @param offset Target offset in buffer
+     * @return Number of bytes written
+     */
+    int write(byte[] chunk, int off, int len, Long offset) throws IOException;
+
     /**
      * @param buffer Fill this buffer length
      * @param offset Position in buffer to read from
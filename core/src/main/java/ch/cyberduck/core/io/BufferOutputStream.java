@@ -54,9 +54,7 @@ public class BufferOutputStream extends ProxyOutputStream {
         if(log.isLoggable(Level.FINE)) {
             log.fine(String.format("Buffer %d bytes at offset %d", len, offset));
         }
-        final byte[] chunk = new byte[len];
-        System.arraycopy(bytes, off, chunk, 0, len);
-        buffer.write(chunk, offset);
+        buffer.write(bytes, off, len, offset);
         super.write(bytes, off, len);
     }
 
@@ -0,0 +1,423 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of checksums of local files for a single algorithm. An entry is only used while size,
+ * modification date, change date and file key of the file are unchanged since the checksum was computed.
+ * Only enabled on file systems with a change date. Entries are appended to the index file in batches and
+ * duplicates and missing files are removed when compacting. The number of entries is limited with the least
+ * recently used dropped.
+ */
+public final class ChecksumIndex {
+    private static final Logger log = Logger.getLogger(ChecksumIndex.class);
+
+    private static final Map<HashAlgorithm, ChecksumIndex> indexes
+        = new ConcurrentHashMap<HashAlgorithm, ChecksumIndex>();
+
+    private static final boolean unix
+        = FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+
+    /**
+     * @param algorithm Hash algorithm
+     * @return Index shared for all transfers
+     */
+    public static ChecksumIndex get(final HashAlgorithm algorithm) {
+        ChecksumIndex index = indexes.get(algorithm);
+        if(null == index) {
+            index = new ChecksumIndex(LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Checksums"),
+                algorithm.name()), algorithm);
+            final ChecksumIndex existing = indexes.putIfAbsent(algorithm, index);
+            if(null != existing) {
+                return existing;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Number of entries added before appending to index file
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Maximum time in milliseconds entries are kept before appending to index file
+     */
+    private static final long DELAY = 10000L;
+
+    private final Local file;
+    private final HashAlgorithm algorithm;
+    private final boolean enabled;
+    /**
+     * Maximum number of entries
+     */
+    private final int size;
+
+    /**
+     * Entries by absolute path of local file in access order. Loaded on first use. Guarded by this.
+     */
+    private Map<String, Entry> entries;
+
+    /**
+     * Lines not yet appended to index file. Guarded by this.
+     */
+    private final List<String> pending = new ArrayList<String>();
+    private long modified;
+
+    /**
+     * Number of lines in index file
+     */
+    private int lines;
+
+    public ChecksumIndex(final Local file, final HashAlgorithm algorithm) {
+        this(file, algorithm, PreferencesFactory.get().getBoolean("local.checksum.index"));
+    }
+
+    public ChecksumIndex(final Local file, final HashAlgorithm algorithm, final boolean enabled) {
+        this(file, algorithm, enabled, PreferencesFactory.get().getInteger("local.checksum.index.size"));
+    }
+
+    /**
+     * @param file      Index file
+     * @param algorithm Hash algorithm
+     * @param enabled   Disable to always compute checksum
+     * @param size      Maximum number of entries
+     */
+    public ChecksumIndex(final Local file, final HashAlgorithm algorithm, final boolean enabled, final int size) {
+        this.file = file;
+        this.algorithm = algorithm;
+        this.enabled = enabled && unix;
+        this.size = size;
+        if(enabled && !unix) {
+            log.warn(String.format("Disable checksum index %s without change date of files", file));
+        }
+    }
+
+    /**
+     * Compute checksum of file unless found in index
+     *
+     * @param local  File to read
+     * @param status Transfer status
+     * @return Checksum of file contents
+     */
+    public Checksum compute(final Local local, final TransferStatus status) throws BackgroundException {
+        final Checksum cached = this.find(local);
+        if(Checksum.NONE != cached) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Found checksum %s for %s in index", cached, local));
+            }
+            return cached;
+        }
+        final Entry before = this.identify(local);
+        final Checksum checksum = ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), status);
+        if(null != before) {
+            if(before.equals(this.identify(local))) {
+                this.put(local, before, checksum);
+            }
+            else {
+                log.warn(String.format("Skip adding checksum for %s modified while reading to index", local));
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * @param local File
+     * @return Checksum in index or none if not found or file is modified
+     */
+    public Checksum find(final Local local) {
+        if(!enabled) {
+            return Checksum.NONE;
+        }
+        final Entry entry;
+        synchronized(this) {
+            entry = this.entries().get(local.getAbsolute());
+        }
+        if(null == entry) {
+            return Checksum.NONE;
+        }
+        if(!entry.equals(this.identify(local))) {
+            return Checksum.NONE;
+        }
+        return new Checksum(algorithm, entry.hash);
+    }
+
+    /**
+     * Add checksum computed for file in its current state
+     *
+     * @param local    File
+     * @param checksum Checksum of file contents
+     */
+    public void put(final Local local, final Checksum checksum) {
+        if(algorithm != checksum.algorithm) {
+            log.warn(String.format("Ignore checksum %s with algorithm %s for index %s", checksum, checksum.algorithm, this));
+            return;
+        }
+        final Entry entry = this.identify(local);
+        if(null == entry) {
+            return;
+        }
+        this.put(local, entry, checksum);
+    }
+
+    private void put(final Local local, final Entry identity, final Checksum checksum) {
+        if(!enabled) {
+            return;
+        }
+        final Entry entry = new Entry(identity.size, identity.modified, identity.changed, identity.key, checksum.hash);
+        synchronized(this) {
+            final Entry previous = this.entries().put(local.getAbsolute(), entry);
+            if(entry.equals(previous) && entry.hash.equals(previous.hash)) {
+                // Unchanged
+                return;
+            }
+            if(pending.isEmpty()) {
+                modified = System.currentTimeMillis();
+            }
+            pending.add(entry.serialize(local.getAbsolute()));
+            if(pending.size() >= BATCH || System.currentTimeMillis() - modified > DELAY) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Append entries added to index file
+     */
+    public synchronized void flush() {
+        if(pending.isEmpty()) {
+            return;
+        }
+        if(lines + pending.size() > 2 * Math.max(entries.size(), BATCH)) {
+            pending.clear();
+            this.compact(entries);
+            return;
+        }
+        try {
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(file.getOutputStream(true), StandardCharsets.UTF_8));
+            try {
+                for(String line : pending) {
+                    writer.write(String.format("%s%n", line));
+                }
+            }
+            finally {
+                IOUtils.closeQuietly(writer);
+            }
+            lines += pending.size();
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure adding %d entries to checksum index %s. %s", pending.size(), file, e.getMessage()));
+        }
+        pending.clear();
+    }
+
+    /**
+     * @return Identity of file in its current state or null if not readable
+     */
+    private Entry identify(final Local local) {
+        final java.nio.file.Path path = Paths.get(local.getAbsolute());
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if(!attributes.isRegularFile()) {
+                return null;
+            }
+            // Change time cannot be set by applications preserving the modification date
+            final long changed = unix ? ((FileTime) Files.getAttribute(path, "unix:ctime")).toMillis() : -1L;
+            return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), changed,
+                null == attributes.fileKey() ? StringUtils.EMPTY : attributes.fileKey().toString(), null);
+        }
+        catch(IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", local, e.getMessage()));
+            return null;
+        }
+    }
+
+    private Map<String, Entry> entries() {
+        if(null == entries) {
+            entries = this.load();
+        }
+        return entries;
+    }
+
+    private Map<String, Entry> load() {
+        final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, ChecksumIndex.Entry> eldest) {
+                return this.size() > size;
+            }
+        };
+        if(!file.exists()) {
+            return entries;
+        }
+        lines = 0;
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+            try {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    lines++;
+                    final String[] fields = line.split("\t", 6);
+                    if(fields.length != 6) {
+                        continue;
+                    }
+                    try {
+                        entries.put(fields[5], new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                            fields[3], fields[4]));
+                    }
+                    catch(NumberFormatException e) {
+                        log.warn(String.format("Ignore invalid line %s in checksum index %s", line, file));
+                    }
+                }
+            }
+            finally {
+                IOUtils.closeQuietly(reader);
+            }
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure reading checksum index %s. %s", file, e.getMessage()));
+            return entries;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Loaded %d entries from checksum index %s", entries.size(), file));
+        }
+        if(lines > entries.size() * 2) {
+            this.compact(entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrite index file without superseded entries and entries of files no longer found
+     */
+    private void compact(final Map<String, Entry> entries) {
+        for(Iterator<String> iter = entries.keySet().iterator(); iter.hasNext(); ) {
+            if(!Files.exists(Paths.get(iter.next()))) {
+                iter.remove();
+            }
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Compact checksum index %s with %d entries", file, entries.size()));
+        }
+        try {
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(file.getOutputStream(false), StandardCharsets.UTF_8));
+            try {
+                for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(String.format("%s%n", entry.getValue().serialize(entry.getKey())));
+                }
+                lines = entries.size();
+            }
+            finally {
+                IOUtils.closeQuietly(writer);
+            }
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure writing checksum index %s. %s", file, e.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ChecksumIndex{");
+        sb.append("file=").append(file);
+        sb.append(", algorithm=").append(algorithm);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        private final long changed;
+        private final String key;
+        private final String hash;
+
+        public Entry(final long size, final long modified, final long changed, final String key, final String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.changed = changed;
+            this.key = key;
+            this.hash = hash;
+        }
+
+        public String serialize(final String path) {
+            return StringUtils.join(new Object[]{size, modified, changed, key, hash, path}, '\t');
+        }
+
+        /**
+         * Compares file identity only
+         */
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Entry entry = (Entry) o;
+            return size == entry.size
+                && modified == entry.modified
+                && changed == entry.changed
+                && key.equals(entry.key);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (size ^ (size >>> 32));
+            result = 31 * result + (int) (modified ^ (modified >>> 32));
+            result = 31 * result + (int) (changed ^ (changed >>> 32));
+            result = 31 * result + key.hashCode();
+            return result;
+        }
+    }
+}
@@ -47,12 +47,17 @@ public class FileBuffer implements Buffer {
     }
 
     @Override
-    public synchronized int write(final byte[] chunk, final Long offset) throws IOException {
+    public int write(final byte[] chunk, final Long offset) throws IOException {
+        return this.write(chunk, 0, chunk.length, offset);
+    }
+
+    @Override
+    public synchronized int write(final byte[] chunk, final int off, final int len, final Long offset) throws IOException {
         final RandomAccessFile file = random();
         file.seek(offset);
-        file.write(chunk, 0, chunk.length);
+        file.write(chunk, off, len);
         length = Math.max(length, file.length());
-        return chunk.length;
+        return len;
     }
 
     @Override
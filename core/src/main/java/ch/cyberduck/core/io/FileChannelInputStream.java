@@ -0,0 +1,87 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads from a file channel starting at its current position. Exposes the channel to allow copying to another
+ * channel without reading into a buffer.
+ */
+public class FileChannelInputStream extends InputStream {
+
+    private final FileChannel channel;
+
+    /**
+     * @param channel Readable channel. Closed when this stream is closed.
+     */
+    public FileChannelInputStream(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        if(-1 == this.read(b, 0, 1)) {
+            return -1;
+        }
+        return b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if(0 == len) {
+            return 0;
+        }
+        int read;
+        do {
+            read = channel.read(ByteBuffer.wrap(b, off, len));
+        }
+        while(0 == read);
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if(n <= 0) {
+            return 0L;
+        }
+        final long position = channel.position();
+        final long skipped = Math.min(n, Math.max(0L, channel.size() - position));
+        channel.position(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, channel.size() - channel.position()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return Channel with position of next byte to read
+     */
+    public FileChannel getChannel() {
+        return channel;
+    }
+}
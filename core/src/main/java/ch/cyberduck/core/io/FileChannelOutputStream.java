@@ -0,0 +1,92 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes to a file channel starting at a fixed position using positional writes. Does not modify the position
+ * of the channel and allows multiple streams to write to distinct regions of the same file concurrently.
+ */
+public class FileChannelOutputStream extends OutputStream {
+
+    private final FileChannel channel;
+
+    /**
+     * Next position to write to in file
+     */
+    private long position;
+
+    /**
+     * @param channel  Writable channel. Closed when this stream is closed.
+     * @param position Offset in file to write first byte to
+     */
+    public FileChannelOutputStream(final FileChannel channel, final long position) {
+        this.channel = channel;
+        this.position = position;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        while(buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Copy from channel at its current position without reading into a buffer
+     *
+     * @param source Channel to read from. Position is incremented by the number of bytes transferred.
+     * @param count  Maximum number of bytes to transfer
+     * @return Number of bytes transferred. Zero if end of source is reached.
+     */
+    public long transferFrom(final FileChannel source, final long count) throws IOException {
+        if(position > channel.size()) {
+            // No bytes are transferred to a position beyond the end of the file
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, 8192L));
+            final int read = source.read(buffer);
+            if(read <= 0) {
+                return 0L;
+            }
+            buffer.flip();
+            while(buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            return read;
+        }
+        final long transferred = channel.transferFrom(source, position, count);
+        position += transferred;
+        return transferred;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
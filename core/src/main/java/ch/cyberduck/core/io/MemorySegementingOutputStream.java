@@ -15,52 +15,116 @@ package ch.cyberduck.core.io;
  * GNU General Public License for more details.
  */
 
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.log4j.Logger;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Buffers written data in segments of threshold size obtained from a {@link SegmentBufferPool}. A filled segment
+ * is passed to the proxy without copying. The proxy takes ownership of the segment array and may release it to
+ * the pool once no longer referenced.
+ */
 public class MemorySegementingOutputStream extends SegmentingOutputStream {
     private static final Logger log = Logger.getLogger(MemorySegementingOutputStream.class);
 
     private final OutputStream proxy;
-    private final ByteArrayOutputStream buffer;
+    private final SegmentBufferPool pool;
     private final Integer threshold;
 
     private final AtomicBoolean close = new AtomicBoolean();
 
+    /**
+     * Current segment
+     */
+    private byte[] segment;
+    /**
+     * Number of bytes in current segment
+     */
+    private int count;
+
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold) {
-        this(proxy, threshold, new ByteArrayOutputStream(threshold));
+        this(proxy, threshold, SegmentBufferPool.get(threshold));
     }
 
-    public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final ByteArrayOutputStream buffer) {
-        super(proxy, (long) threshold, buffer);
+    public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final SegmentBufferPool pool) {
+        super(proxy, (long) threshold, new NullOutputStream());
         this.proxy = proxy;
-        this.buffer = buffer;
+        this.pool = pool;
         this.threshold = threshold;
     }
 
     @Override
-    public void flush() throws IOException {
-        // Copy from memory file to output
-        final byte[] content = buffer.toByteArray();
-        // Re-use buffer
-        buffer.reset();
-        for(int offset = 0; offset < content.length; offset += threshold) {
-            int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
-            if(len < threshold) {
-                // Write to start of buffer
-                this.write(bytes);
-            }
-            else {
-                // Write out
-                proxy.write(bytes);
+    public void write(final int b) throws IOException {
+        this.segment()[count++] = (byte) b;
+        if(count == threshold) {
+            this.flush();
+        }
+        this.afterWrite(1);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int remaining = len;
+        int position = off;
+        while(remaining > 0) {
+            final int length = Math.min(threshold - count, remaining);
+            System.arraycopy(b, position, this.segment(), count, length);
+            count += length;
+            position += length;
+            remaining -= length;
+            if(count == threshold) {
+                this.flush();
             }
         }
+        this.afterWrite(len);
+    }
+
+    private byte[] segment() {
+        if(null == segment) {
+            segment = pool.acquire();
+            count = 0;
+        }
+        return segment;
+    }
+
+    /**
+     * Hand over current segment to proxy if filled up to threshold
+     */
+    @Override
+    public void flush() throws IOException {
+        if(null == segment || count < threshold) {
+            // Wait for segment to fill up
+            return;
+        }
+        this.handoff();
+    }
+
+    private void handoff() throws IOException {
+        final byte[] content = segment;
+        final int length = count;
+        // Ownership of segment passed to proxy
+        segment = null;
+        count = 0;
+        this.handoff(proxy, content, length);
+    }
+
+    /**
+     * Pass segment to proxy. The proxy takes ownership of the segment.
+     *
+     * @param proxy   Target stream
+     * @param segment Segment obtained from pool
+     * @param length  Number of bytes in segment
+     */
+    protected void handoff(final OutputStream proxy, final byte[] segment, final int length) throws IOException {
+        proxy.write(segment, 0, length);
     }
 
     @Override
@@ -70,12 +134,14 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
             return;
         }
         try {
-            if(buffer.size() > 0) {
-                proxy.write(buffer.toByteArray());
+            if(count > 0) {
+                this.handoff();
+            }
+            else if(null != segment) {
+                pool.release(segment);
+                segment = null;
             }
-            // Re-use buffer
-            buffer.reset();
-            super.close();
+            proxy.close();
         }
         finally {
             close.set(true);
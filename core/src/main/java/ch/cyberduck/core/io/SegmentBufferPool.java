@@ -0,0 +1,112 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of fixed size heap buffers for segments handed to multipart writers. Idle buffers are only softly
+ * referenced and may be reclaimed by the garbage collector under memory pressure.
+ */
+public final class SegmentBufferPool {
+    private static final Logger log = Logger.getLogger(SegmentBufferPool.class);
+
+    private static final Map<Integer, SegmentBufferPool> pools
+        = new ConcurrentHashMap<Integer, SegmentBufferPool>();
+
+    /**
+     * @param size Segment size in bytes
+     * @return Pool shared by all writers using the same segment size
+     */
+    public static SegmentBufferPool get(final int size) {
+        SegmentBufferPool pool = pools.get(size);
+        if(null == pool) {
+            pool = new SegmentBufferPool(size, PreferencesFactory.get().getInteger("connection.buffer.pool.size"));
+            final SegmentBufferPool existing = pools.putIfAbsent(size, pool);
+            if(null != existing) {
+                return existing;
+            }
+        }
+        return pool;
+    }
+
+    private final int size;
+    private final BlockingQueue<SoftReference<byte[]>> idle;
+
+    /**
+     * @param size  Segment size in bytes
+     * @param limit Maximum number of idle segments retained
+     */
+    public SegmentBufferPool(final int size, final int limit) {
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<SoftReference<byte[]>>(Math.max(1, limit));
+    }
+
+    /**
+     * @return Idle segment from pool or newly allocated segment. Content is undefined.
+     */
+    public byte[] acquire() {
+        SoftReference<byte[]> reference;
+        while((reference = idle.poll()) != null) {
+            final byte[] segment = reference.get();
+            if(segment != null) {
+                return segment;
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Allocate segment with size %d", size));
+        }
+        return new byte[size];
+    }
+
+    /**
+     * Return segment to pool. The caller must not access the segment afterwards. Segments not obtained
+     * from this pool are ignored.
+     *
+     * @param segment Segment previously obtained with {@link #acquire()}
+     */
+    public void release(final byte[] segment) {
+        if(null == segment || segment.length != size) {
+            return;
+        }
+        if(!idle.offer(new SoftReference<byte[]>(segment))) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Discard segment with size %d exceeding pool limit", size));
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentBufferPool{");
+        sb.append("size=").append(size);
+        sb.append(", idle=").append(idle.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -22,16 +22,42 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.NamedThreadFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
 
+    /**
+     * Threads reading ahead from input streams shared by all copiers
+     */
+    private static final ExecutorService readahead
+            = Executors.newCachedThreadPool(new NamedThreadFactory("readahead"));
+
+    /**
+     * Interval in milliseconds to check for cancellation while waiting for buffers
+     */
+    private static final long POLL = 100L;
+
     private final StreamCancelation cancel;
 
     private final StreamProgress progress;
@@ -45,6 +71,18 @@ public final class StreamCopier {
     private Integer chunksize
             = PreferencesFactory.get().getInteger("connection.chunksize");
 
+    /**
+     * Number of buffers read ahead on a separate thread. Zero to read and write on the calling thread.
+     */
+    private Integer buffers
+            = PreferencesFactory.get().getInteger("connection.chunksize.readahead");
+
+    /**
+     * Maximum number of bytes copied at once between file channels. Zero to always copy through a buffer.
+     */
+    private Long channelsize
+            = PreferencesFactory.get().getLong("connection.chunksize.channel");
+
     private Long offset = 0L;
 
     private Long limit = -1L;
@@ -59,6 +97,16 @@ public final class StreamCopier {
         return this;
     }
 
+    public StreamCopier withReadAhead(final Integer buffers) {
+        this.buffers = buffers;
+        return this;
+    }
+
+    public StreamCopier withChannelChunksize(final Long channelsize) {
+        this.channelsize = channelsize;
+        return this;
+    }
+
     public StreamCopier withListener(final StreamListener listener) {
         this.listener = new BytecountStreamListener(listener);
         return this;
@@ -90,38 +138,23 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
+                final List<BandwidthThrottle> throttles = new ArrayList<BandwidthThrottle>();
+                final FileChannel channel = channelsize > 0 ? channel(in, throttles) : null;
+                final OutputStream target = null == channel ? null : target(out, throttles);
+                final SegmentBufferPool pool = SegmentBufferPool.get(chunksize);
+                if(null != target) {
+                    this.transfer(channel, target, throttles);
                 }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
+                else if(buffers > 0 && (limit < 0 || limit > chunksize)) {
+                    this.transfer(pool, in, out);
+                }
+                else {
+                    final byte[] buffer = pool.acquire();
+                    try {
+                        this.transfer(buffer, in, out);
                     }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
+                    finally {
+                        pool.release(buffer);
                     }
                 }
             }
@@ -148,6 +181,287 @@ public final class StreamCopier {
         }
     }
 
+    /**
+     * Alternate reading and writing on the calling thread
+     */
+    private void transfer(final byte[] buffer, final InputStream in, final OutputStream out) throws IOException {
+        long total = 0;
+        int len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            // Cast will work because chunk size is int
+            len = limit.intValue();
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            final int read = in.read(buffer, 0, len);
+            if(-1 == read) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            else {
+                listener.recv(read);
+                out.write(buffer, 0, read);
+                progress.progress(read);
+                listener.sent(read);
+                total += read;
+            }
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                len = (int) Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+                progress.setComplete();
+            }
+        }
+    }
+
+    /**
+     * Copy between file channels without reading into a buffer in user space. Bytes are transferred in chunks to
+     * allow throttling, progress updates and cancellation.
+     *
+     * @param in        Channel to read from at its current position
+     * @param out       Stream backed by file channel
+     * @param throttles Bandwidth throttles of unwrapped streams
+     */
+    private void transfer(final FileChannel in, final OutputStream out, final List<BandwidthThrottle> throttles) throws IOException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Transfer from channel %s to %s", in, out));
+        }
+        long total = 0;
+        while(!cancel.isCanceled()) {
+            long len = channelsize;
+            if(limit > 0) {
+                len = Math.min(limit - total, channelsize);
+                if(len <= 0) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Limit %d reached reading from channel", limit));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+            }
+            for(BandwidthThrottle throttle : throttles) {
+                len = throttle.request((int) Math.min(len, Integer.MAX_VALUE));
+            }
+            final long transferred = transfer(in, out, len);
+            if(0 == transferred) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            listener.recv(transferred);
+            progress.progress(transferred);
+            listener.sent(transferred);
+            total += transferred;
+        }
+    }
+
+    private static long transfer(final FileChannel in, final OutputStream out, final long count) throws IOException {
+        if(out instanceof FileChannelOutputStream) {
+            return ((FileChannelOutputStream) out).transferFrom(in, count);
+        }
+        final FileChannel channel = ((FileOutputStream) out).getChannel();
+        final long position = channel.position();
+        final long transferred = channel.transferFrom(in, position, count);
+        channel.position(position + transferred);
+        return transferred;
+    }
+
+    /**
+     * @param in        Input stream possibly wrapped
+     * @param throttles Add throttles of wrapping streams
+     * @return Channel positioned at next byte to read from stream or null if stream is not backed by a file
+     */
+    private static FileChannel channel(final InputStream in, final List<BandwidthThrottle> throttles) {
+        if(in instanceof ThrottledInputStream) {
+            throttles.add(((ThrottledInputStream) in).getThrottle());
+            return channel(((ThrottledInputStream) in).getDelegate(), throttles);
+        }
+        if(in instanceof FileChannelInputStream) {
+            return ((FileChannelInputStream) in).getChannel();
+        }
+        if(in instanceof FileInputStream) {
+            return ((FileInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @param out       Output stream possibly wrapped
+     * @param throttles Add throttles of wrapping streams
+     * @return Stream backed by file channel or null if not found
+     */
+    private static OutputStream target(final OutputStream out, final List<BandwidthThrottle> throttles) {
+        if(out instanceof ThrottledOutputStream) {
+            throttles.add(((ThrottledOutputStream) out).getThrottle());
+            return target(((ThrottledOutputStream) out).getDelegate(), throttles);
+        }
+        if(out instanceof VoidStatusOutputStream) {
+            return target(((VoidStatusOutputStream) out).getProxy(), throttles);
+        }
+        if(out instanceof FileChannelOutputStream || out instanceof FileOutputStream) {
+            return out;
+        }
+        return null;
+    }
+
+    /**
+     * Read into a ring of pooled buffers on a separate thread while writing filled buffers on the calling thread.
+     * Progress and listener are only notified on the calling thread.
+     */
+    private void transfer(final SegmentBufferPool pool, final InputStream in, final OutputStream out) throws IOException {
+        final BlockingQueue<byte[]> free = new ArrayBlockingQueue<byte[]>(buffers);
+        for(int i = 0; i < buffers; i++) {
+            free.add(pool.acquire());
+        }
+        // Room for all buffers and the final chunk marking end of file or failure
+        final BlockingQueue<Chunk> filled = new ArrayBlockingQueue<Chunk>(buffers + 1);
+        final Reader reader = new Reader(in, free, filled);
+        final Future<?> future = readahead.submit(reader);
+        boolean interrupted = false;
+        try {
+            while(!cancel.isCanceled()) {
+                final Chunk chunk = filled.poll(POLL, TimeUnit.MILLISECONDS);
+                if(null == chunk) {
+                    continue;
+                }
+                if(null != chunk.failure) {
+                    throw chunk.failure;
+                }
+                if(null == chunk.buffer) {
+                    if(chunk.complete) {
+                        progress.setComplete();
+                    }
+                    break;
+                }
+                listener.recv(chunk.length);
+                out.write(chunk.buffer, 0, chunk.length);
+                progress.progress(chunk.length);
+                listener.sent(chunk.length);
+                free.add(chunk.buffer);
+            }
+        }
+        catch(InterruptedException e) {
+            interrupted = true;
+            throw new InterruptedIOException(e.getMessage());
+        }
+        finally {
+            reader.stop();
+            if(!future.isDone()) {
+                // Unblock pending read
+                IOUtils.closeQuietly(in);
+            }
+            try {
+                future.get();
+                // Buffers are no longer referenced by reader
+                for(Chunk chunk : filled) {
+                    pool.release(chunk.buffer);
+                }
+                for(byte[] buffer : free) {
+                    pool.release(buffer);
+                }
+            }
+            catch(InterruptedException e) {
+                interrupted = true;
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Failure reading ahead from stream %s. %s", in, e.getMessage()));
+            }
+            if(interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] buffer;
+        private final int length;
+        /**
+         * End of file or limit reached
+         */
+        private final boolean complete;
+        private final IOException failure;
+
+        private Chunk(final byte[] buffer, final int length, final boolean complete, final IOException failure) {
+            this.buffer = buffer;
+            this.length = length;
+            this.complete = complete;
+            this.failure = failure;
+        }
+    }
+
+    private final class Reader implements Runnable {
+        private final InputStream in;
+        private final BlockingQueue<byte[]> free;
+        private final BlockingQueue<Chunk> filled;
+
+        private volatile boolean stopped;
+
+        private Reader(final InputStream in, final BlockingQueue<byte[]> free, final BlockingQueue<Chunk> filled) {
+            this.in = in;
+            this.free = free;
+            this.filled = filled;
+        }
+
+        private void stop() {
+            stopped = true;
+        }
+
+        @Override
+        public void run() {
+            long total = 0;
+            try {
+                while(true) {
+                    int len = chunksize;
+                    if(limit > 0) {
+                        // Cast will work because chunk size is int
+                        len = (int) Math.min(limit - total, chunksize);
+                    }
+                    if(len <= 0) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Limit %d reached reading from stream", limit));
+                        }
+                        filled.add(new Chunk(null, 0, true, null));
+                        return;
+                    }
+                    byte[] buffer = null;
+                    while(null == buffer) {
+                        if(stopped || cancel.isCanceled()) {
+                            return;
+                        }
+                        buffer = free.poll(POLL, TimeUnit.MILLISECONDS);
+                    }
+                    final int read = in.read(buffer, 0, len);
+                    if(-1 == read) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                        }
+                        free.add(buffer);
+                        filled.add(new Chunk(null, 0, true, null));
+                        return;
+                    }
+                    total += read;
+                    filled.add(new Chunk(buffer, read, false, null));
+                }
+            }
+            catch(IOException e) {
+                if(!stopped) {
+                    filled.add(new Chunk(null, 0, false, e));
+                }
+            }
+            catch(InterruptedException e) {
+                filled.add(new Chunk(null, 0, false, new InterruptedIOException(e.getMessage())));
+            }
+        }
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
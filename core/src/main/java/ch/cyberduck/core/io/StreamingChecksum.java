@@ -0,0 +1,33 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+/**
+ * Upload computing the checksum on the data while it is sent and verifying it with the checksum returned by the
+ * server after the transfer. Allows to skip reading the local file in advance to calculate the checksum.
+ */
+public interface StreamingChecksum {
+
+    /**
+     * @param file   Remote file
+     * @param status Transfer status with encryption and storage class set
+     * @return True if the upload of the file is verified with a checksum computed while streaming
+     */
+    boolean isStreaming(Path file, TransferStatus status);
+}
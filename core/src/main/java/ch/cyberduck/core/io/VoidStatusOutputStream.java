@@ -28,4 +28,11 @@ public class VoidStatusOutputStream extends StatusOutputStream<Void> {
     public Void getStatus() throws BackgroundException {
         return null;
     }
+
+    /**
+     * @return Stream written to without modification
+     */
+    public OutputStream getProxy() {
+        return out;
+    }
 }
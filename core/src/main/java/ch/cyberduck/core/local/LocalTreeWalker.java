@@ -0,0 +1,243 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enumerates a local directory tree with subdirectories listed concurrently ahead of being requested. Children
+ * excluded by the filter are never descended into. Symbolic links are only listed when requested.
+ */
+public final class LocalTreeWalker {
+    private static final Logger log = Logger.getLogger(LocalTreeWalker.class);
+
+    /**
+     * Shared by all transfers to bound the number of concurrent directory listings
+     */
+    private static final ForkJoinPool pool = new ForkJoinPool(
+        Math.max(1, PreferencesFactory.get().getInteger("local.list.concurrency")),
+        new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+                };
+                thread.setName(String.format("walker-%d", threadNumber.getAndIncrement()));
+                return thread;
+            }
+        }, null, true);
+
+    private final Filter<Local> filter;
+    private final Comparator<Local> comparator;
+
+    /**
+     * Maximum number of directories listed ahead and not yet requested
+     */
+    private final int limit;
+
+    /**
+     * Listings of subdirectories by absolute path
+     */
+    private final Map<String, Enumeration> pending
+        = new ConcurrentHashMap<String, Enumeration>();
+
+    /**
+     * Incremented when listings read ahead are discarded. Listings of an earlier generation do not read ahead.
+     */
+    private final AtomicInteger generation
+        = new AtomicInteger();
+
+    public LocalTreeWalker(final Filter<Local> filter, final Comparator<Local> comparator) {
+        this(filter, comparator, PreferencesFactory.get().getInteger("local.list.prefetch"));
+    }
+
+    public LocalTreeWalker(final Filter<Local> filter, final Comparator<Local> comparator, final int limit) {
+        this.filter = filter;
+        this.comparator = comparator;
+        this.limit = limit;
+    }
+
+    /**
+     * Wait for listing of directory and start listing its subdirectories
+     *
+     * @param directory Folder
+     * @return Filtered and sorted children of directory
+     */
+    public AttributedList<Local> list(final Local directory) throws BackgroundException {
+        Enumeration task = pending.remove(directory.getAbsolute());
+        if(null == task) {
+            task = new Enumeration(directory, generation.get());
+            pool.execute(task);
+        }
+        else {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use listing of %s read ahead", directory));
+            }
+        }
+        try {
+            task.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(CancellationException e) {
+            // Discarded while requested
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            throw new AccessDeniedException(e.getCause().getMessage(), e.getCause());
+        }
+        if(null != task.failure) {
+            throw task.failure;
+        }
+        return task.children;
+    }
+
+    /**
+     * Discard listings read ahead
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        if(!pending.isEmpty()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Discard %d listings read ahead", pending.size()));
+            }
+        }
+        for(Enumeration task : pending.values()) {
+            task.cancel(false);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Discard listings read ahead for directory and its descendants not requested
+     *
+     * @param directory Folder skipped
+     */
+    public void skip(final Local directory) {
+        final Enumeration task = pending.remove(directory.getAbsolute());
+        if(null == task) {
+            // Subdirectories are only read ahead from a listing read ahead
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Discard listing of skipped %s read ahead", directory));
+        }
+        task.discard();
+        final String prefix = directory.getAbsolute() + directory.getDelimiter();
+        for(Map.Entry<String, Enumeration> entry : pending.entrySet()) {
+            if(entry.getKey().startsWith(prefix)) {
+                if(pending.remove(entry.getKey(), entry.getValue())) {
+                    entry.getValue().discard();
+                }
+            }
+        }
+    }
+
+    private final class Enumeration extends RecursiveAction {
+        private static final long serialVersionUID = 7946153201497839262L;
+
+        private final Local directory;
+        private final int generation;
+        /**
+         * Removed from pending listings as subtree is skipped
+         */
+        private volatile boolean discarded;
+
+        private AttributedList<Local> children;
+        private AccessDeniedException failure;
+
+        public Enumeration(final Local directory, final int generation) {
+            this.directory = directory;
+            this.generation = generation;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                children = directory.list().filter(comparator, filter);
+            }
+            catch(AccessDeniedException e) {
+                failure = e;
+                return;
+            }
+            for(Local child : children) {
+                if(this.isDiscarded()) {
+                    break;
+                }
+                if(pending.size() >= limit) {
+                    // Remaining subdirectories are listed when requested
+                    break;
+                }
+                if(child.isDirectory() && !child.isSymbolicLink()) {
+                    final Enumeration task = new Enumeration(child, generation);
+                    if(null == pending.putIfAbsent(child.getAbsolute(), task)) {
+                        if(this.isDiscarded()) {
+                            // Added after listings were discarded
+                            pending.remove(child.getAbsolute(), task);
+                            break;
+                        }
+                        task.fork();
+                    }
+                }
+            }
+        }
+
+        private void discard() {
+            discarded = true;
+            this.cancel(false);
+        }
+
+        private boolean isDiscarded() {
+            return discarded || generation != LocalTreeWalker.this.generation.get();
+        }
+    }
+
+    /**
+     * @return Number of listings read ahead and not yet requested
+     */
+    int size() {
+        return pending.size();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LocalTreeWalker{");
+        sb.append("filter=").append(filter);
+        sb.append(", pending=").append(pending.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -24,6 +24,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -31,10 +32,12 @@ import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
 import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.threading.NamedThreadFactory;
 import ch.cyberduck.core.vault.VaultRegistry;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
 import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.AbandonedConfig;
 import org.apache.commons.pool2.impl.EvictionConfig;
 import org.apache.commons.pool2.impl.EvictionPolicy;
@@ -43,6 +46,11 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.log4j.Logger;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DefaultSessionPool implements SessionPool {
     private static final Logger log = Logger.getLogger(DefaultSessionPool.class);
@@ -64,6 +72,13 @@ public class DefaultSessionPool implements SessionPool {
 
     private SessionPool features = SessionPool.DISCONNECTED;
 
+    /**
+     * Number of sessions to open in parallel on first borrow. Zero to disable.
+     */
+    private int prewarm;
+
+    private final AtomicBoolean warmed = new AtomicBoolean();
+
     public DefaultSessionPool(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                               final VaultRegistry registry, final Cache<Path> cache, final TranscriptListener transcript,
                               final Host bookmark) {
@@ -77,6 +92,17 @@ public class DefaultSessionPool implements SessionPool {
         configuration.setEvictionPolicyClassName(CustomPoolEvictionPolicy.class.getName());
         configuration.setBlockWhenExhausted(true);
         configuration.setMaxWaitMillis(BORROW_MAX_WAIT_INTERVAL);
+        final long keepalive = PreferencesFactory.get().getLong("connection.pool.keepalive.seconds");
+        if(keepalive > 0) {
+            // Send keepalive for all idle sessions in every eviction run
+            configuration.setTimeBetweenEvictionRunsMillis(TimeUnit.SECONDS.toMillis(keepalive));
+            configuration.setTestWhileIdle(true);
+            configuration.setNumTestsPerEvictionRun(-1);
+        }
+        // Never evict below minimum number of idle sessions
+        configuration.setMinEvictableIdleTimeMillis(-1L);
+        configuration.setSoftMinEvictableIdleTimeMillis(TimeUnit.SECONDS.toMillis(
+                PreferencesFactory.get().getLong("connection.pool.idle.seconds")));
         this.pool = new GenericObjectPool<Session>(new PooledSessionFactory(connect, trust, key, cache, bookmark, registry), configuration);
         final AbandonedConfig abandon = new AbandonedConfig();
         abandon.setUseUsageTracking(true);
@@ -100,8 +126,13 @@ public class DefaultSessionPool implements SessionPool {
 
         @Override
         public boolean evict(final EvictionConfig config, final PooledObject<Session<?>> underTest, final int idleCount) {
-            log.warn(String.format("Evict idle session %s from pool", underTest));
-            return true;
+            final long idle = underTest.getIdleTimeMillis();
+            if((config.getIdleSoftEvictTime() < idle && config.getMinIdle() < idleCount)
+                    || config.getIdleEvictTime() < idle) {
+                log.warn(String.format("Evict session %s idle for %dms from pool", underTest, idle));
+                return true;
+            }
+            return false;
         }
     }
 
@@ -113,6 +144,17 @@ public class DefaultSessionPool implements SessionPool {
         return this;
     }
 
+    /**
+     * @param count Number of sessions to open in parallel on first borrow, at least the minimum number of idle sessions
+     */
+    public DefaultSessionPool withPrewarm(final int count) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Configure with prewarm %d", count));
+        }
+        this.prewarm = count;
+        return this;
+    }
+
     public DefaultSessionPool withMaxIdle(final int count) {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Configure with max idle %d", count));
@@ -152,6 +194,9 @@ public class DefaultSessionPool implements SessionPool {
                     if(DISCONNECTED == features) {
                         features = new StatelessSessionPool(connect, session, cache, transcript, registry);
                     }
+                    if(prewarm > 0 && warmed.compareAndSet(false, true)) {
+                        this.warm();
+                    }
                     return session.withListener(transcript);
                 }
                 catch(IllegalStateException e) {
@@ -196,6 +241,56 @@ public class DefaultSessionPool implements SessionPool {
         }
     }
 
+    /**
+     * Open connections in parallel in the background for the number of sessions to prewarm or the minimum
+     * number of idle sessions, whichever is larger
+     */
+    private void warm() {
+        final int count = Math.min(Math.max(prewarm, pool.getMinIdle()), pool.getMaxTotal())
+                - pool.getNumIdle() - pool.getNumActive();
+        if(count <= 0) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Open %d connections in parallel for pool %s", count, this));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(count, new NamedThreadFactory("prewarm"));
+        // Hold all sessions until every connection is opened to not borrow the same idle session twice
+        final CountDownLatch opened = new CountDownLatch(count);
+        for(int i = 0; i < count; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Session<?> session = null;
+                    try {
+                        session = pool.borrowObject();
+                    }
+                    catch(Exception e) {
+                        log.warn(String.format("Failure opening connection for pool %s. %s", DefaultSessionPool.this, e.getMessage()));
+                    }
+                    finally {
+                        opened.countDown();
+                    }
+                    if(null == session) {
+                        return;
+                    }
+                    try {
+                        opened.await();
+                    }
+                    catch(InterruptedException e) {
+                        log.warn(String.format("Interrupted opening connections for pool %s", DefaultSessionPool.this));
+                    }
+                    finally {
+                        // Make available as idle session
+                        pool.returnObject(session);
+                    }
+                }
+            });
+        }
+        // Terminate threads after tasks are complete
+        executor.shutdown();
+    }
+
     @Override
     public void release(final Session<?> session, final BackgroundException failure) {
         if(log.isInfoEnabled()) {
@@ -242,6 +337,10 @@ public class DefaultSessionPool implements SessionPool {
             if(log.isInfoEnabled()) {
                 log.info(String.format("Close connection pool %s", this));
             }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Connection pool %s with mean borrow wait time %dms, mean connect time %dms and reuse ratio %.2f",
+                        this, this.getMeanBorrowWaitTime(), this.getMeanConnectTime(), this.getReuseRatio()));
+            }
             this.evict();
             pool.close();
         }
@@ -276,6 +375,39 @@ public class DefaultSessionPool implements SessionPool {
         return pool.getNumIdle();
     }
 
+    /**
+     * @return Mean time in milliseconds waiting for a session when borrowing
+     */
+    public long getMeanBorrowWaitTime() {
+        return pool.getMeanBorrowWaitTimeMillis();
+    }
+
+    /**
+     * @return Mean time in milliseconds to open a connection for a borrowed session
+     */
+    public long getMeanConnectTime() {
+        final PooledObjectFactory<Session> factory = pool.getFactory();
+        if(factory instanceof PooledSessionFactory) {
+            return ((PooledSessionFactory) factory).getMeanConnectTime();
+        }
+        return 0L;
+    }
+
+    /**
+     * @return Fraction of borrowed sessions with connection already open
+     */
+    public double getReuseRatio() {
+        final long borrowed = pool.getBorrowedCount();
+        if(0 == borrowed) {
+            return 0d;
+        }
+        final PooledObjectFactory<Session> factory = pool.getFactory();
+        if(factory instanceof PooledSessionFactory) {
+            return (double) Math.max(0L, borrowed - ((PooledSessionFactory) factory).getConnects()) / borrowed;
+        }
+        return 0d;
+    }
+
     @Override
     public Session.State getState() {
         if(pool.isClosed()) {
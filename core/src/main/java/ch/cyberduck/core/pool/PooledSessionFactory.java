@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Keepalive;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.vault.VaultRegistry;
@@ -34,6 +35,8 @@ import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
     private static final Logger log = Logger.getLogger(PooledSessionFactory.class);
 
@@ -44,6 +47,15 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
     private final Host bookmark;
     private final VaultRegistry registry;
 
+    /**
+     * Number of connections opened when activating sessions
+     */
+    private final AtomicLong connects = new AtomicLong();
+    /**
+     * Total time in milliseconds spent opening connections
+     */
+    private final AtomicLong connecting = new AtomicLong();
+
     public PooledSessionFactory(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                                 final Cache<Path> cache, final Host bookmark, final VaultRegistry registry) {
         this.connect = connect;
@@ -73,8 +85,40 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Activate session %s", session));
         }
+        final long start = System.currentTimeMillis();
         // Load vault to increment open count for pooled vault
-        connect.check(session, cache, new DisabledCancelCallback());
+        if(connect.check(session, cache, new DisabledCancelCallback())) {
+            connects.incrementAndGet();
+            connecting.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Send keepalive for idle session
+     *
+     * @return False if connection is found to be broken
+     */
+    @Override
+    public boolean validateObject(final PooledObject<Session> p) {
+        final Session<?> session = p.getObject();
+        if(!session.isConnected()) {
+            return false;
+        }
+        final Keepalive keepalive = session.getFeature(Keepalive.class);
+        if(null == keepalive) {
+            return true;
+        }
+        try {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Send keepalive for idle session %s", session));
+            }
+            keepalive.send();
+            return true;
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure %s sending keepalive for session %s", e.getMessage(), session));
+            return false;
+        }
     }
 
     @Override
@@ -94,6 +138,24 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
         session.close();
     }
 
+    /**
+     * @return Number of connections opened for sessions borrowed from pool
+     */
+    public long getConnects() {
+        return connects.get();
+    }
+
+    /**
+     * @return Mean time in milliseconds to open a connection or zero if no connection was opened
+     */
+    public long getMeanConnectTime() {
+        final long count = connects.get();
+        if(0 == count) {
+            return 0L;
+        }
+        return connecting.get() / count;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("PooledSessionFactory{");
@@ -280,8 +280,29 @@ public abstract class Preferences {
         defaults.put("local.normalize.unicode", String.valueOf(true));
         defaults.put("local.normalize.tilde", String.valueOf(true));
         defaults.put("local.list.native", String.valueOf(true));
+        /*
+          Read attributes of files once when listing a directory and use these until refreshed
+         */
+        defaults.put("local.list.snapshot", String.valueOf(true));
+        /*
+          Number of directories listed concurrently when preparing uploads
+         */
+        defaults.put("local.list.concurrency", String.valueOf(4));
+        /*
+          Maximum number of directories listed ahead of being prepared for upload
+         */
+        defaults.put("local.list.prefetch", String.valueOf(1000));
         defaults.put("local.delimiter", File.separator);
         defaults.put("local.temporaryfiles.shortening.threshold", String.valueOf(240));
+        /*
+          Persist checksums of local files to skip reading unmodified files when comparing. Only available on
+          file systems with a change date
+         */
+        defaults.put("local.checksum.index", String.valueOf(false));
+        /*
+          Maximum number of files in checksum index
+         */
+        defaults.put("local.checksum.index.size", String.valueOf(10000));
 
         defaults.put("application.name", "Cyberduck");
         defaults.put("application.container.name", "duck");
@@ -309,6 +330,14 @@ public abstract class Preferences {
         defaults.put("browser.cache.size", String.valueOf(1000));
         defaults.put("transfer.cache.size", String.valueOf(100));
         defaults.put("icon.cache.size", String.valueOf(200));
+        /*
+          Maximum number of files in all directory listings of a cache
+         */
+        defaults.put("cache.children.limit", String.valueOf(500000));
+        /*
+          Maximum number of file identifiers cached per connection for protocols addressing files by identifier
+         */
+        defaults.put("fileid.cache.size", String.valueOf(100000));
 
         /*
           Caching NS* proxy instances.
@@ -528,6 +557,10 @@ public abstract class Preferences {
         defaults.put("queue.download.segments", String.valueOf(false));
         defaults.put("queue.download.segments.threshold", String.valueOf(100L * 1024L * 1024L));
         defaults.put("queue.download.segments.size", String.valueOf(50L * 1024L * 1024L));
+        /*
+          Write segments to their offset in the target file instead of concatenating segment files when complete
+         */
+        defaults.put("queue.download.segments.direct", String.valueOf(true));
 
         /*
           Open completed downloads
@@ -569,6 +602,14 @@ public abstract class Preferences {
           Bandwidth throttle download stream
          */
         defaults.put("queue.download.bandwidth.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle shared by all transfers to the same host
+         */
+        defaults.put("queue.bandwidth.host.bytes", String.valueOf(-1));
+        /*
+          Maximum number of bytes sent or received at once by a throttled stream in milliseconds of bandwidth
+         */
+        defaults.put("queue.bandwidth.burst.milliseconds", String.valueOf(100));
 
         /*
          * Concurrent connections
@@ -586,6 +627,28 @@ public abstract class Preferences {
             options.append(20).append(",");
             defaults.put("queue.connections.options", options.toString());
         }
+        /*
+         * Adjust number of concurrent connections to throughput starting with queue.connections.limit
+         */
+        defaults.put("queue.connections.adaptive", String.valueOf(false));
+        defaults.put("queue.connections.adaptive.max", String.valueOf(32));
+        /*
+         * Interval in milliseconds to measure throughput between changes of concurrency
+         */
+        defaults.put("queue.connections.adaptive.interval", String.valueOf(2000L));
+        /*
+         * Maximum number of concurrent segment uploads to a single host across all transfers
+         */
+        defaults.put("queue.segments.limit", String.valueOf(20));
+        /*
+         * Maximum number of bytes of segments uploading concurrently to a single host across all transfers
+         */
+        defaults.put("queue.segments.inflight.size", String.valueOf(512L * 1024L * 1024L));
+        /*
+         * Transfer files as soon as they are prepared instead of after all files have been listed. Bulk
+         * features are called for each file separately.
+         */
+        defaults.put("queue.prepare.pipeline", String.valueOf(false));
 
         /*
           While downloading, update the icon of the downloaded file as a progress indicator
@@ -639,6 +702,10 @@ public abstract class Preferences {
         defaults.put("ftp.command.lista", String.valueOf(true));
         defaults.put("ftp.command.stat", String.valueOf(true));
         defaults.put("ftp.command.mlsd", String.valueOf(true));
+        /*
+          Number of lines of directory listing parsed before entries are displayed
+         */
+        defaults.put("ftp.listing.chunksize", String.valueOf(1000));
 
         /*
           Fallback to active or passive mode respectively
@@ -694,8 +761,24 @@ public abstract class Preferences {
         defaults.put("s3.mfa.serialnumber", StringUtils.EMPTY);
 
         defaults.put("s3.listing.chunksize", String.valueOf(1000));
+        /*
+          Number of concurrent requests for recursive listings partitioned by common prefixes found in the
+          number of levels given by depth. Disabled by default as it requires at least one request per common prefix
+         */
+        defaults.put("s3.listing.concurrency", String.valueOf(1));
+        defaults.put("s3.listing.partition.depth", String.valueOf(2));
+        /*
+          Maximum number of partitions for concurrent recursive listing
+         */
+        defaults.put("s3.listing.partition.max", String.valueOf(100));
 
         defaults.put("s3.upload.md5", String.valueOf(true));
+        /*
+          Send unsigned payload with AWS4 signature over HTTPS and verify the MD5 hash computed while uploading
+          with the ETag returned instead of reading the file in advance to calculate the SHA256 hash of the payload.
+          Disabled by default as a corrupted body replaces the object before the mismatch is detected
+         */
+        defaults.put("s3.upload.checksum.stream", String.valueOf(false));
 
         defaults.put("s3.upload.multipart", String.valueOf(true));
         defaults.put("s3.upload.multipart.concurrency", String.valueOf(10));
@@ -760,6 +843,12 @@ public abstract class Preferences {
         defaults.put("openstack.container.size.preload", String.valueOf(true));
 
         defaults.put("openstack.upload.md5", String.valueOf(true));
+        /*
+          Verify the MD5 hash computed while uploading with the ETag returned instead of reading the file in advance
+          to send the checksum with the request. Disabled by default as a corrupted body replaces the object before
+          the mismatch is detected
+         */
+        defaults.put("openstack.upload.checksum.stream", String.valueOf(false));
 
         defaults.put("openstack.upload.largeobject", String.valueOf(true));
         defaults.put("openstack.upload.largeobject.concurrency", String.valueOf(5));
@@ -875,6 +964,18 @@ public abstract class Preferences {
         defaults.put("connection.pool.minidle", String.valueOf(1));
         defaults.put("connection.pool.maxidle", String.valueOf(5));
         defaults.put("connection.pool.maxtotal", String.valueOf(Integer.MAX_VALUE));
+        /*
+          Open connections for number of concurrent transfer connections in parallel when a transfer first borrows from pool
+         */
+        defaults.put("connection.pool.prewarm", String.valueOf(true));
+        /*
+          Interval to send keepalive for idle sessions in pool. Set to 0 to disable
+         */
+        defaults.put("connection.pool.keepalive.seconds", String.valueOf(60L));
+        /*
+          Close sessions idle for longer than this time exceeding the minimum number of idle sessions
+         */
+        defaults.put("connection.pool.idle.seconds", String.valueOf(300L));
 
         /*
           Default login name
@@ -960,10 +1061,24 @@ public abstract class Preferences {
           Transfer read buffer size
          */
         defaults.put("connection.chunksize", String.valueOf(32768));
+        /*
+          Number of transfer read buffers filled ahead on a separate thread while writing. Set to 0 to read and write
+          on the same thread
+         */
+        defaults.put("connection.chunksize.readahead", String.valueOf(0));
+        /*
+          Maximum number of bytes copied at once between files without reading into a buffer. Set to 0 to always
+          copy through a buffer
+         */
+        defaults.put("connection.chunksize.channel", String.valueOf(8388608));
         /*
           Buffer size for wrapped buffered streams
          */
         defaults.put("connection.buffer", String.valueOf(8192));
+        /*
+          Maximum number of idle segment buffers retained per segment size for multipart uploads
+         */
+        defaults.put("connection.buffer.pool.size", String.valueOf(4));
         /*
           SO_SNDBUF
          */
@@ -1016,6 +1131,11 @@ public abstract class Preferences {
 
         defaults.put("sftp.read.maxunconfirmed", String.valueOf(64));
         defaults.put("sftp.write.maxunconfirmed", String.valueOf(64));
+        /*
+          Maximum number of outstanding requests to resolve symbolic links in directory listing
+         */
+        defaults.put("sftp.symlink.maxunconfirmed", String.valueOf(64));
+        defaults.put("sftp.listing.chunksize", String.valueOf(1000));
 
         defaults.put("archive.default", "tar.gz");
 
@@ -1056,6 +1176,22 @@ public abstract class Preferences {
 
         defaults.put("cryptomator.enable", String.valueOf(true));
         defaults.put("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Number of threads shared by all transfers to encrypt and decrypt file content chunks
+         */
+        defaults.put("cryptomator.chunks.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        /*
+          Maximum number of chunks of a single file being encrypted or decrypted ahead in parallel
+         */
+        defaults.put("cryptomator.chunks.window", String.valueOf(16));
+        /*
+          Maximum number of directory IDs and filenames cached per vault
+         */
+        defaults.put("cryptomator.cache.size", String.valueOf(10000));
+        /*
+          Number of threads shared by all listings to decrypt filenames in vaults
+         */
+        defaults.put("cryptomator.list.decrypt.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
     }
 
     protected void setLogging() {
@@ -0,0 +1,294 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs tasks in first-in-first-out order with a concurrency limit adjusted by additive increase and multiplicative
+ * decrease. The limit is raised by one while the measured throughput keeps increasing and tasks are waiting, lowered
+ * by one when throughput drops and halved when the server signals overload. Throughput is sampled when tasks
+ * complete and periodically while tasks are running to detect stalls where no running task makes progress. The limit
+ * is only adjusted for throughput while tasks are transferring contents and not when preparing or listing files.
+ */
+public final class AdaptiveConcurrencyExecutor implements Executor {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyExecutor.class);
+
+    /**
+     * Relative change in throughput ignored as noise
+     */
+    private static final double TOLERANCE = 0.05d;
+
+    /**
+     * Samples throughput of all executors with running tasks
+     */
+    private static final ScheduledExecutorService timer
+            = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("adaptive"));
+
+    private final Executor delegate;
+    private final int minimum;
+    private final int maximum;
+    /**
+     * Minimum interval in milliseconds between adjustments
+     */
+    private final long interval;
+    /**
+     * Number of bytes transferred in total
+     */
+    private final LongSupplier transferred;
+
+    private final Deque<Runnable> pending = new ArrayDeque<Runnable>();
+
+    private int limit;
+    private int running;
+    /**
+     * Number of running tasks transferring contents
+     */
+    private int active;
+
+    private long timestamp;
+    private long bytes;
+    /**
+     * Throughput in bytes per millisecond of previous sample or negative if unknown
+     */
+    private double throughput = -1d;
+    /**
+     * Time of last decrease for failure
+     */
+    private long decreased;
+    /**
+     * Time of last completed task
+     */
+    private long completed;
+
+    /**
+     * Periodic sample while tasks are running
+     */
+    private ScheduledFuture<?> sampler;
+
+    /**
+     * @param delegate    Executor with at least maximum number of threads
+     * @param initial     Initial concurrency limit
+     * @param minimum     Lower bound for concurrency limit
+     * @param maximum     Upper bound for concurrency limit
+     * @param interval    Minimum interval in milliseconds between adjustments
+     * @param transferred Number of bytes transferred in total
+     */
+    public AdaptiveConcurrencyExecutor(final Executor delegate, final int initial, final int minimum, final int maximum,
+                                       final long interval, final LongSupplier transferred) {
+        this.delegate = delegate;
+        this.minimum = Math.max(1, minimum);
+        this.maximum = Math.max(this.minimum, maximum);
+        this.limit = Math.min(this.maximum, Math.max(this.minimum, initial));
+        this.interval = interval;
+        this.transferred = transferred;
+        this.timestamp = System.currentTimeMillis();
+        this.completed = timestamp;
+        this.bytes = transferred.getAsLong();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        synchronized(this) {
+            pending.add(command);
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Lower concurrency limit when failure indicates the server is overloaded
+     *
+     * @param failure Failure of task
+     */
+    public void failure(final BackgroundException failure) {
+        if(failure instanceof RetriableAccessDeniedException
+                || failure instanceof ConnectionRefusedException
+                || failure instanceof ConnectionTimeoutException) {
+            synchronized(this) {
+                final long now = System.currentTimeMillis();
+                if(decreased > 0 && now - decreased < interval) {
+                    // Already decreased for previous failure in interval
+                    return;
+                }
+                decreased = now;
+                limit = Math.max(minimum, limit / 2);
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Decrease concurrency to %d for failure %s", limit, failure.getMessage()));
+                }
+                this.reset(now);
+            }
+        }
+    }
+
+    /**
+     * Running task starts transferring contents
+     */
+    public synchronized void started() {
+        active++;
+    }
+
+    /**
+     * Running task completed transferring contents
+     */
+    public synchronized void finished() {
+        active--;
+        completed = System.currentTimeMillis();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private void dispatch() {
+        while(true) {
+            final Runnable next;
+            synchronized(this) {
+                if(running >= limit || pending.isEmpty()) {
+                    return;
+                }
+                next = pending.poll();
+                running++;
+                if(null == sampler) {
+                    sampler = timer.scheduleWithFixedDelay(new Runnable() {
+                        @Override
+                        public void run() {
+                            tick();
+                        }
+                    }, interval, interval, TimeUnit.MILLISECONDS);
+                }
+            }
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        next.run();
+                    }
+                    finally {
+                        complete();
+                    }
+                }
+            });
+        }
+    }
+
+    private void complete() {
+        synchronized(this) {
+            running--;
+            completed = System.currentTimeMillis();
+            this.sample(completed);
+            if(0 == running && pending.isEmpty()) {
+                if(null != sampler) {
+                    sampler.cancel(false);
+                    sampler = null;
+                }
+            }
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Sample throughput without waiting for a task to complete
+     */
+    private void tick() {
+        synchronized(this) {
+            this.sample(System.currentTimeMillis());
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Compare throughput since last sample with previous sample
+     */
+    private void sample(final long now) {
+        final long elapsed = now - timestamp;
+        if(elapsed < interval || elapsed <= 0) {
+            return;
+        }
+        if(0 == active) {
+            // No throughput expected while preparing or listing files
+            this.reset(now);
+            return;
+        }
+        final long total = transferred.getAsLong();
+        if(total == bytes && now - completed >= interval) {
+            // No progress or completion of any running task in interval
+            if(limit > minimum) {
+                limit--;
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Decrease concurrency to %d with %d stalled tasks", limit, running));
+                }
+            }
+            this.reset(now);
+            return;
+        }
+        final double current = (double) (total - bytes) / elapsed;
+        if(throughput >= 0) {
+            if(current > throughput * (1 + TOLERANCE)) {
+                // Only probe for more concurrency when limited by it
+                if(limit < maximum && !pending.isEmpty()) {
+                    limit++;
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Increase concurrency to %d with throughput %.0f bytes/s", limit, current * 1000));
+                    }
+                }
+            }
+            else if(current < throughput * (1 - TOLERANCE)) {
+                if(limit > minimum) {
+                    limit--;
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Decrease concurrency to %d with throughput %.0f bytes/s", limit, current * 1000));
+                    }
+                }
+            }
+        }
+        timestamp = now;
+        bytes = total;
+        throughput = current;
+    }
+
+    /**
+     * Discard throughput baseline after change of limit
+     */
+    private void reset(final long now) {
+        timestamp = now;
+        bytes = transferred.getAsLong();
+        throughput = -1d;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyExecutor{");
+        sb.append("minimum=").append(minimum);
+        sb.append(", maximum=").append(maximum);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
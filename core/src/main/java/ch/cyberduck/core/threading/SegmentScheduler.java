@@ -0,0 +1,334 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules segment uploads of all files transferred to the same host. Limits the number of concurrent segment
+ * requests and the number of bytes in flight across all transfers and dispatches pending segments round-robin
+ * across files.
+ */
+public final class SegmentScheduler {
+    private static final Logger log = Logger.getLogger(SegmentScheduler.class);
+
+    private static final Map<String, SegmentScheduler> schedulers
+        = new ConcurrentHashMap<String, SegmentScheduler>();
+
+    /**
+     * @param host Bookmark
+     * @return Scheduler shared by all transfers to the same server
+     */
+    public static SegmentScheduler get(final Host host) {
+        final String key = new HostUrlProvider(false).get(host);
+        SegmentScheduler scheduler = schedulers.get(key);
+        if(null == scheduler) {
+            scheduler = new SegmentScheduler(key,
+                PreferencesFactory.get().getInteger("queue.segments.limit"),
+                PreferencesFactory.get().getLong("queue.segments.inflight.size"));
+            final SegmentScheduler existing = schedulers.putIfAbsent(key, scheduler);
+            if(null != existing) {
+                return existing;
+            }
+        }
+        return scheduler;
+    }
+
+    private final String name;
+    /**
+     * Maximum number of concurrent segment requests
+     */
+    private final int limit;
+    /**
+     * Maximum number of bytes of running segments
+     */
+    private final long size;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Pools with pending segments in round-robin order
+     */
+    private final LinkedList<SegmentThreadPool> pools
+        = new LinkedList<SegmentThreadPool>();
+
+    private int running;
+    private long inflight;
+
+    public SegmentScheduler(final String name, final int limit, final long size) {
+        this.name = name;
+        this.limit = limit;
+        this.size = size;
+        this.executor = new ThreadPoolExecutor(limit, limit,
+            PreferencesFactory.get().getLong("threading.pool.keepalive.seconds"), TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("segment"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param concurrency Maximum number of concurrent segments for a single file
+     * @return Pool to submit segments of a single file to. Only registered with the scheduler on first segment submitted
+     */
+    public SegmentThreadPool pool(final int concurrency) {
+        return new SegmentThreadPool(concurrency);
+    }
+
+    /**
+     * @return Number of pools registered
+     */
+    synchronized int size() {
+        return pools.size();
+    }
+
+    /**
+     * Start pending segments while below limits
+     */
+    private synchronized void dispatch() {
+        while(running < limit) {
+            final Segment<?> next = this.next();
+            if(null == next) {
+                return;
+            }
+            running++;
+            inflight += next.length;
+            next.pool.running.add(next);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Dispatch segment with length %d with %d bytes in flight for %s", next.length, inflight, name));
+            }
+            executor.execute(next);
+        }
+    }
+
+    /**
+     * @return Pending segment of next pool in round-robin order or null if none can be started
+     */
+    private Segment<?> next() {
+        for(int i = 0; i < pools.size(); i++) {
+            final SegmentThreadPool pool = pools.removeFirst();
+            pools.addLast(pool);
+            if(pool.pending.isEmpty()) {
+                continue;
+            }
+            if(pool.running.size() >= pool.concurrency) {
+                continue;
+            }
+            final Segment<?> segment = pool.pending.peekFirst();
+            // Always allow a single segment to run even if larger than the limit
+            if(running > 0 && inflight + segment.length > size) {
+                continue;
+            }
+            return pool.pending.pollFirst();
+        }
+        return null;
+    }
+
+    private synchronized void complete(final Segment<?> segment) {
+        running--;
+        inflight -= segment.length;
+        segment.pool.running.remove(segment);
+        this.notifyAll();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentScheduler{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", limit=").append(limit);
+        sb.append(", size=").append(size);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private final class Segment<T> extends FutureTask<T> {
+        private final SegmentThreadPool pool;
+        private final long length;
+
+        public Segment(final SegmentThreadPool pool, final Callable<T> command, final long length) {
+            super(command);
+            this.pool = pool;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            }
+            finally {
+                complete(this);
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Segments of a single file. Does not own any threads.
+     */
+    public final class SegmentThreadPool implements ThreadPool {
+        private final int concurrency;
+
+        private final Deque<Segment<?>> pending = new ArrayDeque<Segment<?>>();
+        private final Set<Segment<?>> running = new HashSet<Segment<?>>();
+
+        private boolean shutdown;
+        private boolean registered;
+
+        private SegmentThreadPool(final int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public <T> Future<T> execute(final Callable<T> command) {
+            return this.execute(command, 0L);
+        }
+
+        /**
+         * @param command Segment upload
+         * @param length  Number of bytes sent by segment
+         */
+        public <T> Future<T> execute(final Callable<T> command, final long length) {
+            final Segment<T> segment = new Segment<T>(this, command, length);
+            synchronized(SegmentScheduler.this) {
+                if(shutdown) {
+                    throw new RejectedExecutionException(String.format("Pool %s shutdown", this));
+                }
+                if(!registered) {
+                    pools.add(this);
+                    registered = true;
+                }
+                pending.add(segment);
+            }
+            dispatch();
+            return segment;
+        }
+
+        @Override
+        public void shutdown(final boolean gracefully) {
+            synchronized(SegmentScheduler.this) {
+                shutdown = true;
+                if(gracefully) {
+                    while(!pending.isEmpty() || !running.isEmpty()) {
+                        try {
+                            SegmentScheduler.this.wait();
+                        }
+                        catch(InterruptedException e) {
+                            log.error(String.format("Failure awaiting pool termination. %s", e.getMessage()));
+                            break;
+                        }
+                    }
+                }
+                else {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Cancel %d pending and %d running segments in %s", pending.size(), running.size(), name));
+                    }
+                    for(Segment<?> segment : pending) {
+                        segment.cancel(false);
+                    }
+                    pending.clear();
+                    for(Segment<?> segment : new ArrayList<Segment<?>>(running)) {
+                        segment.cancel(true);
+                    }
+                }
+                if(registered) {
+                    pools.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public AbstractExecutorService executor() {
+            return new AbstractExecutorService() {
+                @Override
+                public void shutdown() {
+                    SegmentThreadPool.this.shutdown(true);
+                }
+
+                @Override
+                public List<Runnable> shutdownNow() {
+                    SegmentThreadPool.this.shutdown(false);
+                    return Collections.emptyList();
+                }
+
+                @Override
+                public boolean isShutdown() {
+                    synchronized(SegmentScheduler.this) {
+                        return shutdown;
+                    }
+                }
+
+                @Override
+                public boolean isTerminated() {
+                    synchronized(SegmentScheduler.this) {
+                        return shutdown && pending.isEmpty() && running.isEmpty();
+                    }
+                }
+
+                @Override
+                public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+                    final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+                    synchronized(SegmentScheduler.this) {
+                        while(!this.isTerminated()) {
+                            final long wait = deadline - System.currentTimeMillis();
+                            if(wait <= 0) {
+                                return false;
+                            }
+                            SegmentScheduler.this.wait(wait);
+                        }
+                        return true;
+                    }
+                }
+
+                @Override
+                public void execute(final Runnable command) {
+                    SegmentThreadPool.this.execute(Executors.callable(command));
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("SegmentThreadPool{");
+            sb.append("scheduler=").append(name);
+            sb.append(", concurrency=").append(concurrency);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -82,7 +82,7 @@ public class SyncTransfer extends Transfer {
 
     public SyncTransfer(final Host host, final TransferItem item, final TransferAction action) {
         super(host, Collections.singletonList(item),
-            new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
+            new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes"), BandwidthThrottle.get(host)));
         this.init();
         this.item = item;
         this.action = action;
@@ -300,6 +300,16 @@ public abstract class Transfer implements Serializable {
     public abstract List<TransferItem> list(Session<?> source, Session<?> destination, Path directory, Local local,
                                             ListProgressListener listener) throws BackgroundException;
 
+    /**
+     * Notification that file is not transferred and children of directory are not listed
+     *
+     * @param file  Remote file or directory
+     * @param local Local file or directory
+     */
+    public void skip(final Path file, final Local local) {
+        //
+    }
+
     /**
      * @param source      Connection to source server of transfer. May be null.
      * @param destination Connection to target server of transfer
@@ -40,6 +40,7 @@ import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.local.LocalTreeWalker;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.normalizer.UploadRootPathsNormalizer;
 import ch.cyberduck.core.transfer.symlink.UploadSymlinkResolver;
@@ -66,9 +67,10 @@ import java.util.Map;
 public class UploadTransfer extends Transfer {
     private static final Logger log = Logger.getLogger(UploadTransfer.class);
 
-    private final Filter<Local> filter;
-
-    private final Comparator<Local> comparator;
+    /**
+     * Lists subdirectories ahead of preparing their contents
+     */
+    private final LocalTreeWalker walker;
 
     private Cache<Path> cache
             = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
@@ -94,9 +96,8 @@ public class UploadTransfer extends Transfer {
     }
 
     public UploadTransfer(final Host host, final List<TransferItem> roots, final Filter<Local> f, final Comparator<Local> comparator) {
-        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
-        this.filter = f;
-        this.comparator = comparator;
+        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes"), BandwidthThrottle.get(host)));
+        this.walker = new LocalTreeWalker(f, comparator);
     }
 
     @Override
@@ -133,13 +134,19 @@ public class UploadTransfer extends Transfer {
             }
         }
         final List<TransferItem> children = new ArrayList<TransferItem>();
-        for(Local local : directory.list().filter(comparator, filter)) {
+        for(Local local : walker.list(directory)) {
             children.add(new TransferItem(new Path(remote, local.getName(),
                     local.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file)), local));
         }
         return children;
     }
 
+    @Override
+    public void skip(final Path file, final Local local) {
+        // Discard listings of subdirectories read ahead
+        walker.skip(local);
+    }
+
     @Override
     public AbstractUploadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
         if(log.isDebugEnabled()) {
@@ -282,6 +289,7 @@ public class UploadTransfer extends Transfer {
 
     @Override
     public void stop() {
+        walker.clear();
         cache.clear();
         super.stop();
     }
@@ -39,6 +39,7 @@ import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ChecksumIndex;
 import ch.cyberduck.core.local.ApplicationLauncher;
 import ch.cyberduck.core.local.ApplicationLauncherFactory;
 import ch.cyberduck.core.local.IconService;
@@ -54,9 +55,12 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -214,19 +218,21 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                         final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true)
                                     .append(true)
                                     .skip(offset)
-                                    .length(length)
-                                    .rename(segmentFile);
+                                    .length(length);
+                            segmentStatus.setPart(segmentNumber);
+                            if(!options.direct) {
+                                final Local segmentFile = LocalFactory.get(
+                                        segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
+                                segmentStatus.rename(segmentFile);
+                            }
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -246,7 +252,36 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(this.isDirect(status)) {
+            if(!status.isAppend()) {
+                final long length = status.getLength() + status.getOffset();
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Allocate %d bytes for segments in file %s", length, local));
+                }
+                if(local.exists()) {
+                    local.delete();
+                }
+                // Extend file to its final length by writing its last byte
+                final OutputStream out = local.getOutputStream(length - 1);
+                try {
+                    out.write(0);
+                }
+                catch(IOException e) {
+                    throw new LocalAccessDeniedException(e.getMessage(), e);
+                }
+                finally {
+                    IOUtils.closeQuietly(out);
+                }
+                new DownloadSegmentJournal(local).create(status.getSegments().get(0).getLength());
+            }
+        }
+    }
+
+    /**
+     * @return True if segments are written to their offset in the target file
+     */
+    protected boolean isDirect(final TransferStatus status) {
+        return status.isSegmented() && null == status.getSegments().get(0).getRename().local;
     }
 
     /**
@@ -260,13 +295,25 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
+            if(null == status.getRename().local) {
+                if(status.isComplete()) {
+                    // Record segment written to target file for resume
+                    new DownloadSegmentJournal(local).complete(status.getPart());
+                }
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
             return;
         }
         if(status.isComplete()) {
-            if(status.isSegmented()) {
+            if(this.isDirect(status)) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Complete %d segments written to file %s", status.getSegments().size(), local));
+                }
+                new DownloadSegmentJournal(local).delete();
+            }
+            else if(status.isSegmented()) {
                 // Obtain ordered list of segments to reassemble
                 final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
@@ -373,6 +420,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                         MessageFormat.format(LocaleFactory.localizedString("Mismatch between {0} hash {1} of downloaded data and checksum {2} returned by the server", "Error"),
                                                 download.algorithm.toString(), download.hash, checksum.hash));
                             }
+                            ChecksumIndex.get(download.algorithm).put(local, download);
                         }
                     }
                 }
@@ -0,0 +1,138 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records completed segments of a download written directly to the target file. The first line holds the
+ * part size the download was split with followed by the part number of each completed segment. Only exists
+ * while the download is incomplete.
+ */
+final class DownloadSegmentJournal {
+    private static final Logger log = Logger.getLogger(DownloadSegmentJournal.class);
+
+    private final Local file;
+
+    DownloadSegmentJournal(final Local local) {
+        this.file = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegmentjournal", local.getName()));
+    }
+
+    boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Start new journal discarding any previously completed segments
+     *
+     * @param partsize Length of segments
+     */
+    void create(final long partsize) throws AccessDeniedException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Create journal %s for part size %d", file, partsize));
+        }
+        this.write(String.valueOf(partsize), false);
+    }
+
+    /**
+     * @param part Part number of segment written to target file
+     */
+    void complete(final Integer part) throws AccessDeniedException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Add part %d to journal %s", part, file));
+        }
+        this.write(String.valueOf(part), true);
+    }
+
+    /**
+     * @param partsize Length of segments of current transfer
+     * @return Part numbers of completed segments or empty if the journal was recorded with a different part size
+     */
+    Set<Integer> find(final long partsize) throws AccessDeniedException {
+        final Set<Integer> parts = new HashSet<Integer>();
+        final InputStream in = file.getInputStream();
+        try {
+            final List<String> lines = IOUtils.readLines(in, StandardCharsets.UTF_8);
+            if(lines.isEmpty() || !String.valueOf(partsize).equals(StringUtils.trim(lines.get(0)))) {
+                log.warn(String.format("Ignore journal %s with mismatching part size", file));
+                return parts;
+            }
+            for(String line : lines.subList(1, lines.size())) {
+                if(StringUtils.isNumeric(StringUtils.trim(line))) {
+                    parts.add(Integer.valueOf(StringUtils.trim(line)));
+                }
+            }
+            return parts;
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    void delete() {
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(AccessDeniedException | NotfoundException e) {
+                log.warn(String.format("Failure removing journal %s. %s", file, e.getMessage()));
+            }
+        }
+    }
+
+    private void write(final String line, final boolean append) throws AccessDeniedException {
+        // Serialize appends of segments completing concurrently
+        synchronized(DownloadSegmentJournal.class) {
+            final OutputStream out = file.getOutputStream(append);
+            try {
+                IOUtils.write(String.format("%s%n", line), out, StandardCharsets.UTF_8);
+            }
+            catch(IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+            finally {
+                IOUtils.closeQuietly(out);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DownloadSegmentJournal{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
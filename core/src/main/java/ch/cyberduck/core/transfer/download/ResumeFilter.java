@@ -25,13 +25,16 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumCompute;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ChecksumIndex;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 public class ResumeFilter extends AbstractDownloadFilter {
     private static final Logger log = Logger.getLogger(ResumeFilter.class);
 
@@ -55,13 +58,19 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
+            if(new DownloadSegmentJournal(local).exists()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Resume incomplete segmented download of %s", file));
+                }
+                return super.accept(file, local, parent);
+            }
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
                 if(local.attributes().getSize() == attributes.getSize()) {
                     if(Checksum.NONE != attributes.getChecksum()) {
-                        final ChecksumCompute compute = ChecksumComputeFactory.get(attributes.getChecksum().algorithm);
-                        if(compute.compute(local.getInputStream(), parent).equals(attributes.getChecksum())) {
+                        final ChecksumIndex index = ChecksumIndex.get(attributes.getChecksum().algorithm);
+                        if(index.compute(local, parent).equals(attributes.getChecksum())) {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Skip file %s with checksum %s", file, local.attributes().getChecksum()));
                             }
@@ -87,7 +96,37 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
-        if(status.isSegmented()) {
+        if(this.isDirect(status)) {
+            final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+            if(local.exists() && journal.exists()) {
+                final List<TransferStatus> segments = status.getSegments();
+                final Set<Integer> completed = journal.find(segments.get(0).getLength());
+                final List<TransferStatus> remaining = new ArrayList<TransferStatus>();
+                for(TransferStatus segmentStatus : segments) {
+                    if(completed.contains(segmentStatus.getPart())) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed part %s", segmentStatus));
+                        }
+                        status.setLength(status.getLength() - segmentStatus.getLength());
+                        status.setOffset(status.getOffset() + segmentStatus.getLength());
+                    }
+                    else {
+                        remaining.add(segmentStatus);
+                    }
+                }
+                if(!remaining.isEmpty()) {
+                    // Keep allocated file and journal
+                    status.setAppend(true);
+                    status.withSegments(remaining);
+                }
+                else {
+                    // All segments written but download not completed
+                    status.setLength(status.getLength() + status.getOffset());
+                    status.setOffset(0L);
+                }
+            }
+        }
+        else if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
                 final Local segmentFile = segmentStatus.getRename().local;
                 if(segmentFile.exists()) {
@@ -44,8 +44,10 @@ import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Timestamp;
 import ch.cyberduck.core.features.UnixPermission;
+import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.io.StreamingChecksum;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -276,11 +278,19 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         }
         if(options.checksum) {
             if(local.isFile()) {
-                final ChecksumCompute feature = session.getFeature(Write.class).checksum(file);
-                if(feature != null) {
-                    progress.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
-                        file.getName()));
-                    status.setChecksum(feature.compute(local.getInputStream(), status));
+                final Upload upload = session.getFeature(Upload.class);
+                if(upload instanceof StreamingChecksum && ((StreamingChecksum) upload).isStreaming(file, status)) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Defer checksum calculation for %s to upload", file));
+                    }
+                }
+                else {
+                    final ChecksumCompute feature = session.getFeature(Write.class).checksum(file);
+                    if(feature != null) {
+                        progress.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
+                            file.getName()));
+                        status.setChecksum(feature.compute(local.getInputStream(), status));
+                    }
                 }
             }
         }
@@ -27,8 +27,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumCompute;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.ChecksumIndex;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.SymlinkResolver;
 
@@ -70,8 +69,8 @@ public class ResumeFilter extends AbstractUploadFilter {
                     final Write.Append append = upload.append(file, local.attributes().getSize(), cache);
                     if(append.size == local.attributes().getSize()) {
                         if(Checksum.NONE != append.checksum) {
-                            final ChecksumCompute compute = ChecksumComputeFactory.get(append.checksum.algorithm);
-                            if(compute.compute(local.getInputStream(), parent).equals(append.checksum)) {
+                            final ChecksumIndex index = ChecksumIndex.get(append.checksum.algorithm);
+                            if(index.compute(local, parent).equals(append.checksum)) {
                                 if(log.isInfoEnabled()) {
                                     log.info(String.format("Skip file %s with checksum %s", file, local.attributes().getChecksum()));
                                 }
@@ -24,16 +24,49 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.NamedThreadFactory;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 public class DecryptingListProgressListener extends IndexedListProgressListener {
     private static final Logger log = Logger.getLogger(DecryptingListProgressListener.class);
 
+    private static final int concurrency = Math.max(1,
+        PreferencesFactory.get().getInteger("cryptomator.list.decrypt.concurrency"));
+
+    /**
+     * Threads decrypting filenames shared by all listings
+     */
+    private static final ExecutorService workers;
+
+    static {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency,
+            PreferencesFactory.get().getLong("threading.pool.keepalive.seconds"), TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("decrypt"));
+        executor.allowCoreThreadTimeOut(true);
+        workers = executor;
+    }
+
     private final Session<?> session;
     private final Vault vault;
     private final ListProgressListener delegate;
 
+    /**
+     * Number of files in list already decrypted
+     */
+    private int index = 0;
+
     public DecryptingListProgressListener(final Session<?> session, final Vault vault,
                                           final ListProgressListener delegate) {
         this.session = session;
@@ -41,24 +74,73 @@ public class DecryptingListProgressListener extends IndexedListProgressListener
         this.delegate = delegate;
     }
 
+    @Override
+    public IndexedListProgressListener reset() {
+        index = 0;
+        return super.reset();
+    }
+
     @Override
     public void visit(final AttributedList<Path> list, final int index, final Path file) throws ListCanceledException {
-        for(int i = index; i < list.size(); i++) {
-            final Path f = list.get(i);
-            try {
-                f.getType().add(Path.Type.encrypted);
-                list.set(i, vault.decrypt(session, f));
-            }
-            catch(BackgroundException e) {
-                log.error(String.format("Failure decrypting %s. %s", f, e.getDetail()));
-                f.getType().remove(Path.Type.encrypted);
-            }
+        try {
+            file.getType().add(Path.Type.encrypted);
+            list.set(index, vault.decrypt(session, file));
+        }
+        catch(BackgroundException e) {
+            log.error(String.format("Failure decrypting %s. %s", file, e.getDetail()));
+            file.getType().remove(Path.Type.encrypted);
         }
     }
 
+    /**
+     * Decrypt files added to list since last chunk in parallel
+     */
     @Override
     public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
-        super.chunk(folder, list);
+        final int size = list.size();
+        if(concurrency < 2 || size - index < 2) {
+            for(int i = index; i < size; i++) {
+                this.visit(list, i, list.get(i));
+            }
+        }
+        else {
+            final List<Future<Path>> decrypted = new ArrayList<Future<Path>>(size - index);
+            for(int i = index; i < size; i++) {
+                final Path f = list.get(i);
+                f.getType().add(Path.Type.encrypted);
+                decrypted.add(workers.submit(new Callable<Path>() {
+                    @Override
+                    public Path call() throws BackgroundException {
+                        return vault.decrypt(session, f);
+                    }
+                }));
+            }
+            for(int i = index; i < size; i++) {
+                final Path f = list.get(i);
+                try {
+                    list.set(i, decrypted.get(i - index).get());
+                }
+                catch(InterruptedException e) {
+                    for(Future<Path> future : decrypted) {
+                        future.cancel(false);
+                    }
+                    throw new ListCanceledException(list, e);
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        log.error(String.format("Failure decrypting %s. %s", f, ((BackgroundException) e.getCause()).getDetail()));
+                        f.getType().remove(Path.Type.encrypted);
+                    }
+                    else if(e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    else {
+                        throw new ListCanceledException(list, e.getCause());
+                    }
+                }
+            }
+        }
+        index = size;
         delegate.chunk(folder, list);
     }
 
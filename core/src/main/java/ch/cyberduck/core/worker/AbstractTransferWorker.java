@@ -37,6 +37,7 @@ import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.notification.NotificationServiceFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -54,10 +55,11 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
@@ -100,6 +102,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     private final StreamListener stream;
 
+    /**
+     * Start transfer of files as soon as they are prepared
+     */
+    private final boolean pipeline
+            = PreferencesFactory.get().getBoolean("queue.prepare.pipeline");
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -117,7 +125,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                   final StreamListener stream,
                                   final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback,
                                   final Cache<TransferItem> cache) {
-        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new HashMap<Path, TransferStatus>());
+        this(transfer, options, prompt, meter, error, progress, stream, connectionCallback, passwordCallback, cache, new ConcurrentHashMap<Path, TransferStatus>());
     }
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
@@ -172,6 +180,29 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         // No need to implement for single threaded transfer
     }
 
+    /**
+     * Notification of failure in transfer task prior to retry
+     *
+     * @param failure Failure preparing or transferring file
+     */
+    protected void failure(final BackgroundException failure) {
+        //
+    }
+
+    /**
+     * Notification before transferring contents of file in transfer task
+     */
+    protected void started() {
+        //
+    }
+
+    /**
+     * Notification after transferring contents of file in transfer task
+     */
+    protected void finished() {
+        //
+    }
+
     @Override
     public Boolean run(final Session<?> source, final Session<?> destination) throws BackgroundException {
         final String lock = sleep.lock();
@@ -207,18 +238,28 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+            if(pipeline) {
+                meter.reset();
+                // Files are transferred as soon as they are prepared
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, connectionCallback);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, connectionCallback);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
         }
         finally {
             transfer.post(source, destination, table, connectionCallback);
@@ -247,6 +288,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         }
         if(prompt.isSelected(new TransferItem(file, local))) {
             return this.submit(new RetryTransferCallable() {
+                /**
+                 * Status determined in first attempt. Not determined again when retrying a failed transfer.
+                 */
+                private TransferStatus prepared;
+
+                /**
+                 * Transfer in pipeline completed or segments submitted
+                 */
+                private boolean transferred;
+
                 @Override
                 public TransferStatus call() throws BackgroundException {
                     if(parent.isCanceled()) {
@@ -259,14 +310,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         destination = borrow(Connection.destination);
                         // Determine transfer filter implementation from selected overwrite action
                         final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
-                        // Only prepare the path it will be actually transferred
-                        if(!filter.accept(file, local, parent)) {
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Skip file %s by filter %s for transfer %s", file, filter, this));
+                        if(null == prepared) {
+                            // Only prepare the path it will be actually transferred
+                            if(!filter.accept(file, local, parent)) {
+                                if(log.isInfoEnabled()) {
+                                    log.info(String.format("Skip file %s by filter %s for transfer %s", file, filter, this));
+                                }
+                                transfer.skip(file, local);
+                                return null;
                             }
-                            return null;
-                        }
-                        else {
                             if(log.isInfoEnabled()) {
                                 log.info(String.format("Accepted file %s in transfer %s", file, this));
                             }
@@ -276,43 +328,78 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Determine transfer status
                             final TransferStatus status = filter.prepare(file, local, parent, progress);
                             table.put(file, status);
-                            final TransferItem item = new TransferItem(
-                                status.getRename().remote != null ? status.getRename().remote : file,
-                                status.getRename().local != null ? status.getRename().local : local
-                            );
                             // Apply filter
-                            filter.apply(item.remote, item.local, status, progress);
+                            filter.apply(
+                                status.getRename().remote != null ? status.getRename().remote : file,
+                                status.getRename().local != null ? status.getRename().local : local,
+                                status, progress);
                             // Add transfer length to total bytes
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
                             transfer.addTransferred(status.getOffset());
-                            // Recursive
-                            if(file.isDirectory()) {
-                                final List<TransferItem> children;
-                                // Call recursively for all children
-                                children = transfer.list(source, destination, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
+                            prepared = status;
+                        }
+                        final TransferStatus status = prepared;
+                        final TransferItem item = new TransferItem(
+                            status.getRename().remote != null ? status.getRename().remote : file,
+                            status.getRename().local != null ? status.getRename().local : local
+                        );
+                        if(pipeline && !transferred) {
+                            transfer.pre(source, destination, Collections.singletonMap(file, status), connectionCallback);
+                            if(status.isSegmented()) {
+                                // Submit segments to pool
+                                transfer(new TransferItem(file, local), action);
+                            }
+                            else {
+                                // Transfer with current connection. Directories are created before their children are prepared
+                                AbstractTransferWorker.this.started();
+                                try {
+                                    item.remote = transfer.transfer(source, destination, item.remote, item.local,
+                                            options, status, connectionCallback, passwordCallback, progress, stream);
+                                }
+                                finally {
+                                    AbstractTransferWorker.this.finished();
+                                }
+                                filter.complete(item.remote, item.local, options, status, progress);
+                                table.remove(file);
+                            }
+                            transferred = true;
+                        }
+                        // Recursive
+                        if(file.isDirectory()) {
+                            final List<TransferItem> children;
+                            // Call recursively for all children
+                            children = transfer.list(source, destination, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
+                            if(!pipeline) {
                                 // Put into cache for later reference when transferring
                                 cache.put(item, new AttributedList<TransferItem>(children));
-                                // Call recursively
-                                for(TransferItem f : children) {
-                                    // Change download path relative to parent local folder
-                                    prepare(f.remote, f.local, status, action);
-                                }
                             }
-                            if(log.isInfoEnabled()) {
-                                log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
+                            // Call recursively
+                            for(TransferItem f : children) {
+                                // Change download path relative to parent local folder
+                                prepare(f.remote, f.local, status, action);
                             }
-                            return status;
                         }
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Determined transfer status %s of %s for transfer %s", status, file, this));
+                        }
+                        return status;
                     }
                     catch(ConnectionCanceledException e) {
+                        this.fail();
                         throw e;
                     }
                     catch(BackgroundException e) {
+                        AbstractTransferWorker.this.failure(e);
                         if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
+                            if(null != prepared) {
+                                // Set retry count to make multipart uploads search for existing segments
+                                prepared.setRetry(this.getCount());
+                            }
                             // Retry immediately
                             return call();
                         }
+                        this.fail();
                         if(table.size() == 0) {
                             throw e;
                         }
@@ -338,6 +425,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     }
                 }
 
+                /**
+                 * Mark status failed when aborting transfer in pipeline
+                 */
+                private void fail() {
+                    if(pipeline && null != prepared && !transferred) {
+                        prepared.setFailure();
+                    }
+                }
+
                 @Override
                 public String toString() {
                     final StringBuilder sb = new StringBuilder("TransferCallable{");
@@ -350,6 +446,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         }
         else {
             log.info(String.format("Skip unchecked file %s for transfer %s", file, this));
+            transfer.skip(file, local);
         }
         return null;
     }
@@ -375,16 +472,25 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         if(status.isCanceled()) {
                             throw new ConnectionCanceledException();
                         }
+                        // Segment file or renamed target file of segments written directly to their offset
+                        final Local target = segment.getRename().local != null ? segment.getRename().local :
+                                status.getRename().local != null ? status.getRename().local : item.local;
                         // Transfer
                         Session<?> source = null;
                         Session<?> destination = null;
                         try {
                             source = borrow(Connection.source);
                             destination = borrow(Connection.destination);
-                            item.remote = transfer.transfer(source, destination,
-                                    segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                    segment.getRename().local != null ? segment.getRename().local : item.local,
-                                    options, segment, connectionCallback, passwordCallback, progress, stream);
+                            AbstractTransferWorker.this.started();
+                            try {
+                                item.remote = transfer.transfer(source, destination,
+                                        segment.getRename().remote != null ? segment.getRename().remote : item.remote,
+                                        target,
+                                        options, segment, connectionCallback, passwordCallback, progress, stream);
+                            }
+                            finally {
+                                AbstractTransferWorker.this.finished();
+                            }
                             // Recursive
                             if(item.remote.isDirectory()) {
                                 if(!cache.isCached(item)) {
@@ -401,7 +507,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Post process of file.
                             filter.complete(
                                     segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                    segment.getRename().local != null ? segment.getRename().local : item.local,
+                                    target,
                                     options, segment, progress);
 
                             if(!iter.hasNext()) {
@@ -414,6 +520,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             throw e;
                         }
                         catch(BackgroundException e) {
+                            AbstractTransferWorker.this.failure(e);
                             if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
                                 // Set retry count to make multipart uploads search for existing segments
                                 segment.setRetry(this.getCount());
@@ -27,7 +27,9 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.AdaptiveConcurrencyExecutor;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
@@ -45,6 +47,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private static final Logger log = Logger.getLogger(ConcurrentTransferWorker.class);
@@ -53,6 +56,10 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final SessionPool destination;
 
     private final CompletionService<TransferStatus> completion;
+    /**
+     * Concurrency controller if number of connections is determined from throughput
+     */
+    private final AdaptiveConcurrencyExecutor adaptive;
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
 
@@ -70,10 +77,30 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connectionCallback, passwordCallback);
         this.source = source;
         this.destination = destination;
-        final ThreadPool pool = ThreadPoolFactory.get("transfer",
-                transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
-                        1 : PreferencesFactory.get().getInteger("queue.connections.limit"));
-        this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        final Preferences preferences = PreferencesFactory.get();
+        if(transfer.getSource().getTransferType() == Host.TransferType.newconnection) {
+            this.adaptive = null;
+            this.completion = new ExecutorCompletionService<TransferStatus>(ThreadPoolFactory.get("transfer", 1).executor());
+        }
+        else if(preferences.getBoolean("queue.connections.adaptive")) {
+            final int maximum = preferences.getInteger("queue.connections.adaptive.max");
+            // Threads for upper limit of concurrency
+            final ThreadPool pool = ThreadPoolFactory.get("transfer", maximum);
+            this.adaptive = new AdaptiveConcurrencyExecutor(pool.executor(),
+                    preferences.getInteger("queue.connections.limit"), 1, maximum,
+                    preferences.getLong("queue.connections.adaptive.interval"), new LongSupplier() {
+                @Override
+                public long getAsLong() {
+                    return transfer.getTransferred();
+                }
+            });
+            this.completion = new ExecutorCompletionService<TransferStatus>(adaptive);
+        }
+        else {
+            this.adaptive = null;
+            this.completion = new ExecutorCompletionService<TransferStatus>(ThreadPoolFactory.get("transfer",
+                    preferences.getInteger("queue.connections.limit")).executor());
+        }
     }
 
     @Override
@@ -119,6 +146,27 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    @Override
+    protected void failure(final BackgroundException failure) {
+        if(adaptive != null) {
+            adaptive.failure(failure);
+        }
+    }
+
+    @Override
+    protected void started() {
+        if(adaptive != null) {
+            adaptive.started();
+        }
+    }
+
+    @Override
+    protected void finished() {
+        if(adaptive != null) {
+            adaptive.finished();
+        }
+    }
+
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) throws BackgroundException {
         if(log.isInfoEnabled()) {
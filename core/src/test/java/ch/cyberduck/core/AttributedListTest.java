@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -75,4 +76,67 @@ public class AttributedListTest {
         list.filter(new NullFilter<>());
         assertNotNull(list.find(new SimplePathPredicate(a)));
     }
+
+    @Test
+    public void testLookup() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        assertSame(a, list.get(new Path("/a", EnumSet.of(Path.Type.file))));
+        assertEquals(0, list.indexOf(a));
+        // Index updated on append
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(b));
+        assertEquals(1, list.indexOf(new Path("/b", EnumSet.of(Path.Type.file))));
+        assertTrue(list.contains(b));
+        assertFalse(list.contains(new Path("/b", EnumSet.of(Path.Type.directory))));
+        // Index rebuilt after sort
+        list.filter(new NullComparator<Path>() {
+            @Override
+            public int compare(final Path o1, final Path o2) {
+                return o2.getName().compareTo(o1.getName());
+            }
+        });
+        assertEquals(0, list.indexOf(b));
+        assertEquals(1, list.indexOf(a));
+        assertTrue(list.remove(b));
+        assertEquals(0, list.indexOf(a));
+        assertEquals(-1, list.indexOf(b));
+        assertNull(list.get(b));
+    }
+
+    @Test
+    public void testLookupModified() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        assertTrue(list.add(b));
+        assertEquals(1, list.indexOf(b));
+        // Change identity of element after it was indexed
+        b.attributes().setVersionId("1");
+        // Found after list is modified
+        list.set(1, b);
+        assertEquals(1, list.indexOf(b));
+        assertTrue(list.contains(b));
+        assertSame(b, list.get(new Path("/b", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1"))));
+        assertFalse(list.contains(new Path("/b", EnumSet.of(Path.Type.file))));
+        assertEquals(0, list.indexOf(a));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        final List<Path> snapshot = list.toList();
+        assertSame(snapshot, list.toList());
+        for(Path file : list) {
+            // Modification while iterating
+            list.add(new Path("/b", EnumSet.of(Path.Type.file)));
+        }
+        assertEquals(Collections.singletonList(a), snapshot);
+        assertEquals(2, list.size());
+        assertEquals(2, list.toList().size());
+    }
 }
@@ -0,0 +1,109 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class FileidCacheTest {
+
+    @Test
+    public void testPut() {
+        final FileidCache cache = new FileidCache(10);
+        final Path file = new Path("/d/f", EnumSet.of(Path.Type.file));
+        assertNull(cache.get(file));
+        cache.put(file, "1");
+        assertEquals("1", cache.get(file));
+        assertEquals("1", cache.get(new Path("/d/f", EnumSet.of(Path.Type.file))));
+        assertNull(cache.get(new Path("/d/f", EnumSet.of(Path.Type.directory))));
+        cache.put(file, "");
+        assertEquals("1", cache.get(file));
+        cache.remove(file);
+        assertNull(cache.get(file));
+    }
+
+    @Test
+    public void testRemoveDirectory() {
+        final FileidCache cache = new FileidCache(10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path child = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        final Path nested = new Path(new Path(directory, "s", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        final Path sibling = new Path("/d2", EnumSet.of(Path.Type.directory));
+        final Path file = new Path("/d", EnumSet.of(Path.Type.file));
+        cache.put(directory, "1");
+        cache.put(child, "2");
+        cache.put(nested, "3");
+        cache.put(sibling, "4");
+        cache.put(file, "5");
+        cache.remove(directory);
+        assertNull(cache.get(directory));
+        assertNull(cache.get(child));
+        assertNull(cache.get(nested));
+        assertEquals("4", cache.get(sibling));
+        assertEquals("5", cache.get(file));
+    }
+
+    @Test
+    public void testRetain() {
+        final FileidCache cache = new FileidCache(10);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path found = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        final Path deleted = new Path(directory, "g", EnumSet.of(Path.Type.file));
+        final Path folder = new Path(directory, "s", EnumSet.of(Path.Type.directory));
+        final Path nested = new Path(folder, "f", EnumSet.of(Path.Type.file));
+        final Path sibling = new Path("/d2/f", EnumSet.of(Path.Type.file));
+        // Parent directory without identifier cached
+        final Path descendant = new Path(new Path(directory, "t", EnumSet.of(Path.Type.directory)), "f", EnumSet.of(Path.Type.file));
+        cache.put(descendant, "7");
+        cache.put(directory, "1");
+        cache.put(found, "2");
+        cache.put(deleted, "3");
+        cache.put(folder, "4");
+        cache.put(nested, "5");
+        cache.put(sibling, "6");
+        cache.retain(directory, new AttributedList<Path>(Collections.singletonList(found)));
+        assertEquals("1", cache.get(directory));
+        assertEquals("2", cache.get(found));
+        assertNull(cache.get(deleted));
+        assertNull(cache.get(folder));
+        assertNull(cache.get(nested));
+        assertNull(cache.get(descendant));
+        assertEquals("6", cache.get(sibling));
+        cache.retain(directory, AttributedList.<Path>emptyList());
+        assertNull(cache.get(found));
+        assertEquals("1", cache.get(directory));
+    }
+
+    @Test
+    public void testRetainRoot() {
+        final FileidCache cache = new FileidCache(10);
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path found = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path nested = new Path(found, "f", EnumSet.of(Path.Type.file));
+        final Path deleted = new Path("/f", EnumSet.of(Path.Type.file));
+        cache.put(found, "1");
+        cache.put(nested, "2");
+        cache.put(deleted, "3");
+        cache.retain(root, new AttributedList<Path>(Collections.singletonList(found)));
+        assertEquals("1", cache.get(found));
+        assertEquals("2", cache.get(nested));
+        assertNull(cache.get(deleted));
+    }
+}
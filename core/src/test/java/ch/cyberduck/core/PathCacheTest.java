@@ -86,4 +86,70 @@ public class PathCacheTest {
         assertFalse(cache.isHidden(new Path(parent, "a", EnumSet.of(Path.Type.file))));
         assertTrue(cache.isHidden(new Path(parent, "b", EnumSet.of(Path.Type.file))));
     }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final PathCache cache = new PathCache(2);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>());
+        cache.put(b, new AttributedList<Path>());
+        // Mark as recently used
+        cache.get(a);
+        cache.put(c, new AttributedList<Path>());
+        assertTrue(cache.isCached(a));
+        assertFalse(cache.isCached(b));
+        assertTrue(cache.isCached(c));
+        assertEquals(1L, cache.getEvictions());
+    }
+
+    @Test
+    public void testEvictChildrenLimit() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE, 3L);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>(Arrays.asList(
+                new Path(a, "1", EnumSet.of(Path.Type.file)), new Path(a, "2", EnumSet.of(Path.Type.file)))));
+        assertEquals(2L, cache.getCount());
+        cache.put(b, new AttributedList<Path>(Arrays.asList(
+                new Path(b, "1", EnumSet.of(Path.Type.file)), new Path(b, "2", EnumSet.of(Path.Type.file)))));
+        assertFalse(cache.isCached(a));
+        assertTrue(cache.isCached(b));
+        assertEquals(2L, cache.getCount());
+        cache.remove(b);
+        assertEquals(0L, cache.getCount());
+    }
+
+    @Test
+    public void testCountAppended() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE, 3L);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        cache.put(a, list);
+        assertEquals(0L, cache.getCount());
+        // Append to cached listing
+        list.add(new Path(a, "1", EnumSet.of(Path.Type.file)));
+        list.add(new Path(a, "2", EnumSet.of(Path.Type.file)));
+        assertSame(list, cache.get(a));
+        assertEquals(2L, cache.getCount());
+        cache.put(b, new AttributedList<Path>(Arrays.asList(
+                new Path(b, "1", EnumSet.of(Path.Type.file)), new Path(b, "2", EnumSet.of(Path.Type.file)))));
+        assertFalse(cache.isCached(a));
+        assertEquals(2L, cache.getCount());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final PathCache cache = new PathCache(1);
+        final Path f = new Path("/", EnumSet.of(Path.Type.directory));
+        cache.get(f);
+        cache.put(f, new AttributedList<Path>());
+        cache.get(f);
+        cache.get(f);
+        assertEquals(2L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(0L, cache.getEvictions());
+    }
 }
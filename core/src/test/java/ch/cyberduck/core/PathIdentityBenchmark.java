@@ -0,0 +1,115 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of paths in maps and listings as done when preparing a transfer. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=ch.cyberduck.core.PathIdentityBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathIdentityBenchmark {
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private List<Path> files;
+    private Map<Path, TransferStatus> table;
+    private AttributedList<Path> list;
+
+    @Setup
+    public void setup() {
+        files = new ArrayList<Path>(size);
+        final Path home = new Path("/bucket", EnumSet.of(Path.Type.volume, Path.Type.directory));
+        home.attributes().setRegion("eu-west-1");
+        for(int i = 0; i < size; i++) {
+            final Path directory = new Path(home, String.format("d%d", i % 100), EnumSet.of(Path.Type.directory));
+            final Path file = new Path(directory, String.format("f%d", i), EnumSet.of(Path.Type.file));
+            file.attributes().setVersionId(String.valueOf(i));
+            files.add(file);
+        }
+        table = new HashMap<Path, TransferStatus>();
+        for(Path file : files) {
+            table.put(file, new TransferStatus());
+        }
+        list = new AttributedList<Path>(files);
+    }
+
+    /**
+     * Populate table of transfer status for all files
+     */
+    @Benchmark
+    public Map<Path, TransferStatus> prepare() {
+        final Map<Path, TransferStatus> table = new HashMap<Path, TransferStatus>();
+        for(Path file : files) {
+            table.put(file, new TransferStatus());
+        }
+        return table;
+    }
+
+    /**
+     * Lookup status for every file as done when transferring
+     */
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        for(Path file : files) {
+            blackhole.consume(table.get(file));
+        }
+    }
+
+    /**
+     * Lookup in listing by reference
+     */
+    @Benchmark
+    public void find(final Blackhole blackhole) {
+        for(int i = 0; i < files.size(); i += 100) {
+            blackhole.consume(list.get(files.get(i)));
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathIdentityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
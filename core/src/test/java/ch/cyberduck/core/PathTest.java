@@ -219,4 +219,53 @@ public class PathTest {
         assertTrue(attributes.isSymbolicLink());
         assertTrue(attributes.isDirectory());
     }
+
+    @Test
+    public void testEqualsHashCode() {
+        final Path a = new Path("/a/f", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/a/f", EnumSet.of(Path.Type.file));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(new DefaultPathPredicate(a).hashCode(), a.hashCode());
+        assertNotEquals(a, new Path("/a/f", EnumSet.of(Path.Type.directory)));
+        // Placeholder not part of identity
+        assertEquals(a, new Path("/a/f", EnumSet.of(Path.Type.file, Path.Type.placeholder)));
+        b.attributes().setVersionId("1");
+        assertNotEquals(a, b);
+        assertNotEquals(a.hashCode(), b.hashCode());
+        a.attributes().setVersionId("1");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void testIdentityTypeChange() {
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final int hash = a.hashCode();
+        a.setType(EnumSet.of(Path.Type.file));
+        assertNotEquals(hash, a.hashCode());
+        assertEquals(new Path("/a", EnumSet.of(Path.Type.file)), a);
+        // Modify type in place
+        a.getType().remove(Path.Type.file);
+        a.getType().add(Path.Type.directory);
+        assertEquals(hash, a.hashCode());
+        assertEquals(new Path("/a", EnumSet.of(Path.Type.directory)), a);
+    }
+
+    @Test
+    public void testParentCreatedOnDemand() {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setRegion("r");
+        final Path file = new Path("/a/b/f", EnumSet.of(Path.Type.file), attributes);
+        final Path parent = file.getParent();
+        assertSame(parent, file.getParent());
+        assertEquals("/a/b", parent.getAbsolute());
+        assertEquals(EnumSet.of(Path.Type.directory), parent.getType());
+        assertEquals("r", parent.attributes().getRegion());
+        final Path root = parent.getParent().getParent();
+        assertTrue(root.isRoot());
+        assertEquals(EnumSet.of(Path.Type.volume, Path.Type.directory), root.getType());
+        assertEquals("/a/b/f", new Path(parent, "f", EnumSet.of(Path.Type.file)).getAbsolute());
+        assertEquals("r", new Path(parent, "f", EnumSet.of(Path.Type.file)).attributes().getRegion());
+    }
 }
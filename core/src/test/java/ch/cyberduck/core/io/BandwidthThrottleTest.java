@@ -0,0 +1,91 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class BandwidthThrottleTest {
+
+    @Test
+    public void testUnlimited() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+        assertEquals(Integer.MAX_VALUE, throttle.request(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testBurst() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(10000f, 100L, null);
+        assertEquals(1000, throttle.request(32768));
+        assertEquals(10, throttle.request(10));
+    }
+
+    @Test
+    public void testMinimum() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(0f, 100L, null);
+        assertEquals(1, throttle.request(32768));
+    }
+
+    @Test
+    public void testParent() {
+        final BandwidthThrottle parent = new BandwidthThrottle(1000f, 100L, null);
+        final BandwidthThrottle throttle = new BandwidthThrottle(10000f, 100L, parent);
+        assertEquals(100, throttle.request(32768));
+        assertSame(parent, throttle.getParent());
+    }
+
+    @Test
+    public void testAggregateRate() throws Exception {
+        final float rate = 200000f;
+        final BandwidthThrottle throttle = new BandwidthThrottle(rate, 20L, null);
+        final AtomicLong total = new AtomicLong();
+        final List<AtomicLong> streams = new ArrayList<AtomicLong>();
+        final List<Thread> threads = new ArrayList<Thread>();
+        final long start = System.currentTimeMillis();
+        for(int i = 0; i < 4; i++) {
+            final AtomicLong stream = new AtomicLong();
+            streams.add(stream);
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while(System.currentTimeMillis() - start < 1000L) {
+                        final int granted = throttle.request(32768);
+                        stream.addAndGet(granted);
+                        total.addAndGet(granted);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+        // Initial burst plus rate for elapsed time with one reservation in flight per stream
+        assertTrue(total.get() <= rate * elapsed / 1000 + 5 * rate * 20 / 1000);
+        assertTrue(total.get() >= rate / 2);
+        for(AtomicLong stream : streams) {
+            // No stream is starved
+            assertTrue(stream.get() > total.get() / 8);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ChecksumIndexTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local index = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        this.write(local, "a");
+        final ChecksumIndex checksums = new ChecksumIndex(index, HashAlgorithm.md5, true);
+        assertEquals(Checksum.NONE, checksums.find(local));
+        final Checksum checksum = checksums.compute(local, new TransferStatus());
+        assertEquals(new MD5ChecksumCompute().compute(local.getInputStream(), new TransferStatus()), checksum);
+        assertEquals(checksum, checksums.find(local));
+        checksums.flush();
+        // Read from index file
+        assertEquals(checksum, new ChecksumIndex(index, HashAlgorithm.md5, true).find(local));
+        // Same size with modification date restored
+        final long timestamp = local.attributes().getModificationDate();
+        Thread.sleep(10L);
+        this.write(local, "b");
+        local.attributes().setModificationDate(timestamp);
+        assertEquals(Checksum.NONE, new ChecksumIndex(index, HashAlgorithm.md5, true).find(local));
+        assertNotEquals(checksum, checksums.compute(local, new TransferStatus()));
+        local.delete();
+        index.delete();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final Local index = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        this.write(local, "a");
+        final ChecksumIndex checksums = new ChecksumIndex(index, HashAlgorithm.sha256, false);
+        assertNotEquals(Checksum.NONE, checksums.compute(local, new TransferStatus()));
+        assertEquals(Checksum.NONE, checksums.find(local));
+        assertFalse(index.exists());
+        local.delete();
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final Local index = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local a = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local b = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        this.write(a, "a");
+        this.write(b, "b");
+        final ChecksumIndex checksums = new ChecksumIndex(index, HashAlgorithm.md5, true, 1);
+        checksums.compute(a, new TransferStatus());
+        checksums.compute(b, new TransferStatus());
+        assertEquals(Checksum.NONE, checksums.find(a));
+        assertNotEquals(Checksum.NONE, checksums.find(b));
+        a.delete();
+        b.delete();
+    }
+
+    @Test
+    public void testPruneMissing() throws Exception {
+        final Local index = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        this.write(local, "a");
+        final ChecksumIndex checksums = new ChecksumIndex(index, HashAlgorithm.md5, true);
+        // Superseded entries trigger compaction when loading
+        for(int i = 0; i < 3; i++) {
+            this.write(local, String.valueOf(i));
+            checksums.compute(local, new TransferStatus());
+            checksums.flush();
+        }
+        final long length = index.attributes().getSize();
+        local.delete();
+        assertEquals(Checksum.NONE, new ChecksumIndex(index, HashAlgorithm.md5, true).find(local));
+        assertTrue(index.attributes().getSize() < length);
+        assertEquals(0L, index.attributes().getSize());
+        index.delete();
+    }
+
+    private void write(final Local local, final String content) throws Exception {
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out, StandardCharsets.UTF_8);
+        out.close();
+    }
+}
@@ -0,0 +1,92 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class FileChannelOutputStreamTest {
+
+    @Test
+    public void testWriteRegions() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1000);
+        // Write second half first
+        final OutputStream second = local.getOutputStream(500L);
+        second.write(content, 500, 500);
+        final OutputStream first = local.getOutputStream(0L);
+        first.write(content, 0, 250);
+        first.write(content, 250, 250);
+        first.close();
+        second.close();
+        assertEquals(1000L, local.attributes().getSize());
+        final InputStream in = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        // Does not truncate existing content
+        final FileChannelOutputStream out = (FileChannelOutputStream) local.getOutputStream(10L);
+        out.write(content[0]);
+        assertEquals(11L, out.getPosition());
+        out.close();
+        assertEquals(1000L, local.attributes().getSize());
+        local.delete();
+    }
+
+    @Test
+    public void testTransferFrom() throws Exception {
+        final Local source = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(100000);
+        final OutputStream write = source.getOutputStream(false);
+        write.write(content);
+        write.close();
+        final Local target = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        // Start beyond end of new file
+        final FileChannelOutputStream out = (FileChannelOutputStream) target.getOutputStream(50000L);
+        final FileChannel channel = FileChannel.open(Paths.get(source.getAbsolute()), StandardOpenOption.READ);
+        channel.position(50000L);
+        long total = 0L;
+        long transferred;
+        while((transferred = out.transferFrom(channel, 16384L)) > 0) {
+            total += transferred;
+        }
+        assertEquals(50000L, total);
+        assertEquals(100000L, out.getPosition());
+        channel.close();
+        out.close();
+        assertEquals(100000L, target.attributes().getSize());
+        final InputStream in = target.getInputStream();
+        final byte[] copy = IOUtils.toByteArray(in);
+        in.close();
+        for(int i = 50000; i < content.length; i++) {
+            assertEquals(content[i], copy[i]);
+        }
+        source.delete();
+        target.delete();
+    }
+}
@@ -19,8 +19,11 @@ import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Test;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertEquals;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 public class MemorySegementingOutputStreamTest {
 
@@ -60,4 +63,42 @@ public class MemorySegementingOutputStreamTest {
         out.close();
         assertArrayEquals(content, proxy.toByteArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testHandoffSegment() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(32768, 1);
+        final List<byte[]> segments = new ArrayList<byte[]>();
+        final MemorySegementingOutputStream out = new MemorySegementingOutputStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                fail();
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                assertEquals(0, off);
+                assertEquals(32768, b.length);
+                segments.add(b);
+                pool.release(b);
+            }
+        }, 32768, pool);
+        final byte[] content = RandomUtils.nextBytes(32768 * 2);
+        out.write(content, 0, 32768);
+        assertEquals(1, segments.size());
+        out.write(content, 32768, 32768);
+        assertEquals(2, segments.size());
+        // Reuse released segment
+        assertSame(segments.get(0), segments.get(1));
+        out.close();
+        assertEquals(2, segments.size());
+    }
+
+    @Test
+    public void testReleaseForeignSegment() throws Exception {
+        final SegmentBufferPool pool = new SegmentBufferPool(2, 1);
+        final byte[] foreign = new byte[1];
+        pool.release(foreign);
+        assertNotSame(foreign, pool.acquire());
+        assertEquals(2, pool.acquire().length);
+    }
+}
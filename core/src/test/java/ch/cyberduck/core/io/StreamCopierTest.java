@@ -1,20 +1,33 @@
 package ch.cyberduck.core.io;
 
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.*;
 
@@ -168,4 +181,128 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testIntegrityReadAhead() throws Exception {
+        final String random = new RandomStringGenerator.Builder().build().generate(439865);
+        final byte[] bytes = random.getBytes();
+        final TransferStatus status = new TransferStatus();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        new StreamCopier(status, status).withReadAhead(2).transfer(new ByteArrayInputStream(bytes), out);
+        assertEquals(bytes.length, status.getOffset(), 0L);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertTrue(status.isComplete());
+    }
+
+    @Test
+    public void testLimitReadAhead() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final AtomicLong read = new AtomicLong();
+        new StreamCopier(status, status).withReadAhead(4).withOffset(1L).withLimit(100000L).transfer(new NullInputStream(432768L) {
+            @Override
+            public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+                final int n = super.read(bytes, offset, length);
+                read.addAndGet(n);
+                return n;
+            }
+        }, new NullOutputStream());
+        assertEquals(100000L, status.getOffset(), 0L);
+        assertEquals(100000L, read.get());
+        assertTrue(status.isComplete());
+    }
+
+    @Test
+    public void testReadFailureReadAhead() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final AtomicLong sent = new AtomicLong();
+        try {
+            new StreamCopier(status, status).withReadAhead(2).withListener(new DisabledStreamListener() {
+                @Override
+                public void sent(final long bytes) {
+                    sent.addAndGet(bytes);
+                }
+            }).transfer(new NullInputStream(432768L) {
+                @Override
+                public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+                    if(this.getPosition() >= 65536L) {
+                        throw new IOException("f");
+                    }
+                    return super.read(bytes, offset, length);
+                }
+            }, new NullOutputStream());
+            fail();
+        }
+        catch(BackgroundException e) {
+            // Discard sent bytes
+            assertEquals(0L, status.getOffset());
+            assertEquals(0L, sent.get());
+            assertFalse(status.isComplete());
+        }
+    }
+
+    @Test(expected = ConnectionCanceledException.class)
+    public void testCancelReadAhead() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).withReadAhead(2).transfer(new NullInputStream(432768L), new NullOutputStream() {
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                status.setCanceled();
+            }
+        });
+    }
+
+    @Test
+    public void testTransferChannel() throws Exception {
+        final Local source = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(100000);
+        final OutputStream write = source.getOutputStream(false);
+        write.write(content);
+        write.close();
+        final Local target = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus();
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+        new StreamCopier(status, status).withChunksize(1024).withChannelChunksize(32768L).withOffset(1000L).withLimit(90000L).withListener(new DisabledStreamListener() {
+            @Override
+            public void sent(final long bytes) {
+                sent.addAndGet(bytes);
+                max.set(Math.max(max.get(), bytes));
+            }
+        }).transfer(new ThrottledInputStream(new FileChannelInputStream(FileChannel.open(Paths.get(source.getAbsolute()), StandardOpenOption.READ)),
+                new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+            new VoidStatusOutputStream(target.getOutputStream(0L)));
+        assertTrue(status.isComplete());
+        assertEquals(90000L, status.getOffset());
+        assertEquals(90000L, sent.get());
+        // Not copied through buffer
+        assertEquals(32768L, max.get());
+        assertEquals(90000L, target.attributes().getSize());
+        final InputStream in = target.getInputStream();
+        final byte[] copy = IOUtils.toByteArray(in);
+        in.close();
+        for(int i = 0; i < copy.length; i++) {
+            assertEquals(content[i + 1000], copy[i]);
+        }
+        source.delete();
+        target.delete();
+    }
+
+    @Test
+    public void testTransferFileStream() throws Exception {
+        final Local source = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(100000);
+        final OutputStream write = source.getOutputStream(false);
+        write.write(content);
+        write.close();
+        final Local target = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new FileInputStream(source.getAbsolute()), target.getOutputStream(false));
+        assertTrue(status.isComplete());
+        assertEquals(100000L, status.getOffset());
+        final InputStream in = target.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(in));
+        in.close();
+        source.delete();
+        target.delete();
+    }
 }
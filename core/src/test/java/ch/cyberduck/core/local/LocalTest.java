@@ -1,5 +1,6 @@
 package ch.cyberduck.core.local;
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.exception.AccessDeniedException;
@@ -9,7 +10,10 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.junit.Assert.*;
 
@@ -26,6 +30,41 @@ public class LocalTest {
         }).isEmpty());
     }
 
+    @Test
+    public void testListSnapshot() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local file = new Local(directory, "f");
+        write(file, "abc");
+        new Local(directory, "d").mkdir();
+        final AttributedList<Local> list = directory.list();
+        assertEquals(2, list.size());
+        final Local child = list.find(new Predicate<Local>() {
+            @Override
+            public boolean test(final Local l) {
+                return l.getName().equals("f");
+            }
+        });
+        assertTrue(child.isFile());
+        assertFalse(child.isDirectory());
+        assertEquals(3L, child.attributes().getSize());
+        // Modified using other instance
+        write(file, "abcde");
+        assertEquals(3L, child.attributes().getSize());
+        child.attributes().refresh();
+        assertEquals(5L, child.attributes().getSize());
+        for(Local l : list) {
+            l.delete();
+        }
+        directory.delete();
+    }
+
+    private static void write(final Local file, final String content) throws Exception {
+        final OutputStream out = file.getOutputStream(false);
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.close();
+    }
+
     @Test(expected = AccessDeniedException.class)
     public void testReadNoFile() throws Exception {
         final String name = UUID.randomUUID().toString();
@@ -0,0 +1,179 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.filter.UploadRegexFilter;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.upload.UploadRegexPriorityComparator;
+
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class LocalTreeWalkerTest {
+
+    @Test
+    public void testList() throws Exception {
+        final Local directory = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local a = new Local(directory, "a");
+        a.mkdir();
+        final Local b = new Local(a, "b");
+        b.mkdir();
+        new DefaultLocalTouchFeature().touch(new Local(b, "f"));
+        final Local skipped = new Local(directory, ".DS_Store");
+        new DefaultLocalTouchFeature().touch(skipped);
+        final LocalTreeWalker walker = new LocalTreeWalker(new UploadRegexFilter(Pattern.compile("\\.DS_Store")),
+            new UploadRegexPriorityComparator(), 10);
+        final AttributedList<Local> children = walker.list(directory);
+        assertEquals(1, children.size());
+        assertTrue(children.contains(a));
+        assertFalse(children.contains(skipped));
+        assertTrue(walker.list(a).contains(b));
+        assertTrue(walker.list(b).contains(new Local(b, "f")));
+        walker.clear();
+        new Local(b, "f").delete();
+        b.delete();
+        a.delete();
+        skipped.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testListReadAhead() throws Exception {
+        final Local directory = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local a = new Local(directory, "a");
+        a.mkdir();
+        final Local b = new Local(a, "b");
+        new DefaultLocalTouchFeature().touch(b);
+        final AtomicInteger listed = new AtomicInteger();
+        final LocalTreeWalker walker = new LocalTreeWalker(new Filter<Local>() {
+            @Override
+            public boolean accept(final Local file) {
+                if(file.equals(b)) {
+                    listed.incrementAndGet();
+                }
+                return true;
+            }
+
+            @Override
+            public Pattern toPattern() {
+                return null;
+            }
+        }, new UploadRegexPriorityComparator(), 10);
+        assertTrue(walker.list(directory).contains(a));
+        assertEquals(1, walker.size());
+        assertTrue(walker.list(a).contains(b));
+        // Listing of subdirectory read ahead
+        assertEquals(1, listed.get());
+        assertEquals(0, walker.size());
+        b.delete();
+        a.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        final Local directory = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local a = new Local(directory, "a");
+        a.mkdir();
+        final Local b = new Local(a, "b");
+        b.mkdir();
+        final Local c = new Local(directory, "c");
+        c.mkdir();
+        final LocalTreeWalker walker = new LocalTreeWalker(new NullFilter<Local>(), new UploadRegexPriorityComparator(), 10);
+        assertTrue(walker.list(directory).contains(a));
+        // Wait for listing of a read ahead to read ahead b
+        for(int i = 0; i < 100 && walker.size() < 3; i++) {
+            Thread.sleep(10L);
+        }
+        assertEquals(3, walker.size());
+        walker.skip(a);
+        assertEquals(1, walker.size());
+        walker.skip(b);
+        assertEquals(1, walker.size());
+        assertTrue(walker.list(c).isEmpty());
+        assertEquals(0, walker.size());
+        b.delete();
+        a.delete();
+        c.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testClearWhileListing() throws Exception {
+        final Local directory = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local a = new Local(directory, "a");
+        a.mkdir();
+        final Local b = new Local(a, "b");
+        b.mkdir();
+        final CountDownLatch listing = new CountDownLatch(1);
+        final CountDownLatch cleared = new CountDownLatch(1);
+        final LocalTreeWalker walker = new LocalTreeWalker(new Filter<Local>() {
+            @Override
+            public boolean accept(final Local file) {
+                if(file.equals(b)) {
+                    // Block listing of a read ahead
+                    listing.countDown();
+                    try {
+                        cleared.await();
+                    }
+                    catch(InterruptedException e) {
+                        fail();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Pattern toPattern() {
+                return null;
+            }
+        }, new UploadRegexPriorityComparator(), 10);
+        assertTrue(walker.list(directory).contains(a));
+        listing.await();
+        walker.clear();
+        assertEquals(0, walker.size());
+        cleared.countDown();
+        // Listing of a completes without reading ahead b
+        Thread.sleep(500L);
+        assertEquals(0, walker.size());
+        assertTrue(walker.list(a).contains(b));
+        walker.clear();
+        b.delete();
+        a.delete();
+        directory.delete();
+    }
+
+    @Test(expected = LocalAccessDeniedException.class)
+    public void testListNotfound() throws Exception {
+        final LocalTreeWalker walker = new LocalTreeWalker(new NullFilter<Local>(), new UploadRegexPriorityComparator());
+        walker.list(new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString()));
+    }
+}
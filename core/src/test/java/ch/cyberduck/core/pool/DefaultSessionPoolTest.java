@@ -34,12 +34,18 @@ import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.CancelCallback;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.EvictionConfig;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.junit.Test;
 
 import java.net.SocketException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -124,4 +130,59 @@ public class DefaultSessionPoolTest {
         pool.release(session, new BackgroundException("m", "d"));
         assertFalse(interrupt.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPrewarm() throws Exception {
+        final Set<Session<?>> connected = Collections.newSetFromMap(new ConcurrentHashMap<Session<?>, Boolean>());
+        final DefaultSessionPool pool = new DefaultSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) {
+                return connected.add(session);
+            }
+        }, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), new Host(new TestProtocol()))
+                .withMinIdle(1).withPrewarm(3);
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        final long timeout = System.currentTimeMillis() + 5000L;
+        while(pool.getNumIdle() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+        }
+        pool.release(session, null);
+        assertEquals(3, pool.getNumIdle());
+        assertEquals(3, connected.size());
+        // Only opened on first borrow
+        pool.release(pool.borrow(BackgroundActionState.running), null);
+        assertEquals(3, connected.size());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testReuseRatio() throws Exception {
+        final Set<Session<?>> connected = Collections.newSetFromMap(new ConcurrentHashMap<Session<?>, Boolean>());
+        final DefaultSessionPool pool = new DefaultSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) {
+                return connected.add(session);
+            }
+        }, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), new Host(new TestProtocol()));
+        assertEquals(0d, pool.getReuseRatio(), 0d);
+        for(int i = 0; i < 4; i++) {
+            pool.release(pool.borrow(BackgroundActionState.running), null);
+        }
+        assertEquals(1, connected.size());
+        assertEquals(0.75d, pool.getReuseRatio(), 0.01d);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        final DefaultSessionPool.CustomPoolEvictionPolicy policy = new DefaultSessionPool.CustomPoolEvictionPolicy();
+        final DefaultPooledObject<Session<?>> session = new DefaultPooledObject<Session<?>>(new NullSession(new Host(new TestProtocol())));
+        assertFalse(policy.evict(new EvictionConfig(-1L, 60000L, 1), session, 2));
+        Thread.sleep(10L);
+        assertTrue(policy.evict(new EvictionConfig(-1L, 1L, 1), session, 2));
+        // Keep minimum number of idle sessions
+        assertFalse(policy.evict(new EvictionConfig(-1L, 1L, 1), session, 1));
+    }
+}
@@ -0,0 +1,151 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConcurrencyExecutorTest {
+
+    private static final LongSupplier NONE = new LongSupplier() {
+        @Override
+        public long getAsLong() {
+            return 0L;
+        }
+    };
+
+    @Test
+    public void testLimit() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(10);
+        final AdaptiveConcurrencyExecutor executor = new AdaptiveConcurrencyExecutor(pool, 2, 1, 10, Long.MAX_VALUE, NONE);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(6);
+        for(int i = 0; i < 6; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    max.set(Math.max(max.get(), running.incrementAndGet()));
+                    try {
+                        Thread.sleep(5L);
+                    }
+                    catch(InterruptedException e) {
+                        fail();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        assertEquals(2, max.get());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final AdaptiveConcurrencyExecutor executor = new AdaptiveConcurrencyExecutor(Executors.newSingleThreadExecutor(), 8, 1, 10, Long.MAX_VALUE, NONE);
+        assertEquals(8, executor.getLimit());
+        // Ignore failures not caused by server load
+        executor.failure(new AccessDeniedException("d"));
+        assertEquals(8, executor.getLimit());
+        executor.failure(new ConnectionRefusedException("d", null));
+        assertEquals(4, executor.getLimit());
+        // Single decrease within interval
+        executor.failure(new ConnectionRefusedException("d", null));
+        assertEquals(4, executor.getLimit());
+    }
+
+    @Test
+    public void testBounds() throws Exception {
+        assertEquals(10, new AdaptiveConcurrencyExecutor(Executors.newSingleThreadExecutor(), 20, 1, 10, 1L, NONE).getLimit());
+        assertEquals(1, new AdaptiveConcurrencyExecutor(Executors.newSingleThreadExecutor(), 0, 1, 10, 1L, NONE).getLimit());
+    }
+
+    @Test
+    public void testStall() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(10);
+        final AdaptiveConcurrencyExecutor executor = new AdaptiveConcurrencyExecutor(pool, 4, 1, 10, 50L, NONE);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(6);
+        for(int i = 0; i < 6; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    executor.started();
+                    try {
+                        // Hang without transferring any bytes
+                        release.await();
+                    }
+                    catch(InterruptedException e) {
+                        fail();
+                    }
+                    finally {
+                        executor.finished();
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        // Limit is decreased without any task completing
+        for(int i = 0; i < 100 && executor.getLimit() > 1; i++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(1, executor.getLimit());
+        release.countDown();
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testNoStallWhilePreparing() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(10);
+        final AdaptiveConcurrencyExecutor executor = new AdaptiveConcurrencyExecutor(pool, 4, 1, 10, 20L, NONE);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(6);
+        for(int i = 0; i < 6; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // Listing without transferring contents
+                        release.await();
+                    }
+                    catch(InterruptedException e) {
+                        fail();
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        Thread.sleep(200L);
+        assertEquals(4, executor.getLimit());
+        release.countDown();
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,191 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SegmentSchedulerTest {
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() throws Exception {
+        final SegmentScheduler.SegmentThreadPool pool = new SegmentScheduler("test", 1, Long.MAX_VALUE).pool(1);
+        pool.shutdown(true);
+        pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                fail();
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testRegisterOnExecute() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler("test", 1, Long.MAX_VALUE);
+        final SegmentScheduler.SegmentThreadPool pool = scheduler.pool(1);
+        assertEquals(0, scheduler.size());
+        assertEquals("t", pool.execute(new Callable<String>() {
+            @Override
+            public String call() {
+                return "t";
+            }
+        }).get());
+        assertEquals(1, scheduler.size());
+        pool.shutdown(true);
+        assertEquals(0, scheduler.size());
+        // Never used
+        scheduler.pool(1);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testLimitRequests() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler("test", 2, Long.MAX_VALUE);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for(int p = 0; p < 3; p++) {
+            final SegmentScheduler.SegmentThreadPool pool = scheduler.pool(10);
+            for(int i = 0; i < 5; i++) {
+                futures.add(pool.execute(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        max.set(Math.max(max.get(), running.incrementAndGet()));
+                        Thread.sleep(5L);
+                        running.decrementAndGet();
+                        return null;
+                    }
+                }, 1L));
+            }
+        }
+        for(Future<Void> f : futures) {
+            f.get();
+        }
+        assertEquals(2, max.get());
+    }
+
+    @Test
+    public void testLimitInflight() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler("test", 10, 100L);
+        final SegmentScheduler.SegmentThreadPool pool = scheduler.pool(10);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for(int i = 0; i < 6; i++) {
+            futures.add(pool.execute(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    max.set(Math.max(max.get(), running.incrementAndGet()));
+                    Thread.sleep(5L);
+                    running.decrementAndGet();
+                    return null;
+                }
+            }, 50L));
+        }
+        for(Future<Void> f : futures) {
+            f.get();
+        }
+        assertEquals(2, max.get());
+        pool.shutdown(true);
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler("test", 1, Long.MAX_VALUE);
+        final SegmentScheduler.SegmentThreadPool blocker = scheduler.pool(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        // Occupy single slot until all segments are queued
+        final Future<Void> block = blocker.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                latch.await(5L, TimeUnit.SECONDS);
+                return null;
+            }
+        });
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final SegmentScheduler.SegmentThreadPool a = scheduler.pool(10);
+        final SegmentScheduler.SegmentThreadPool b = scheduler.pool(10);
+        final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+        for(int i = 0; i < 2; i++) {
+            futures.add(a.execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return order.add("a");
+                }
+            }));
+        }
+        for(int i = 0; i < 2; i++) {
+            futures.add(b.execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return order.add("b");
+                }
+            }));
+        }
+        latch.countDown();
+        block.get();
+        for(Future<Boolean> f : futures) {
+            f.get();
+        }
+        assertEquals(4, order.size());
+        assertNotEquals(order.get(0), order.get(1));
+        assertNotEquals(order.get(2), order.get(3));
+    }
+
+    @Test
+    public void testCancelPending() throws Exception {
+        final SegmentScheduler scheduler = new SegmentScheduler("test", 1, Long.MAX_VALUE);
+        final SegmentScheduler.SegmentThreadPool pool = scheduler.pool(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Future<Void> running = pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                latch.await(5L, TimeUnit.SECONDS);
+                return null;
+            }
+        });
+        final Future<Void> pending = pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() {
+                fail();
+                return null;
+            }
+        });
+        pool.shutdown(false);
+        assertTrue(pending.isCancelled());
+        assertTrue(running.isCancelled());
+        latch.countDown();
+        // Slot is available for other files
+        assertEquals("t", scheduler.pool(1).execute(new Callable<String>() {
+            @Override
+            public String call() {
+                return "t";
+            }
+        }).get(5L, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,49 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class DownloadSegmentJournalTest {
+
+    @Test
+    public void testFind() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+        assertFalse(journal.exists());
+        journal.create(100L);
+        assertTrue(journal.exists());
+        assertTrue(journal.find(100L).isEmpty());
+        journal.complete(2);
+        journal.complete(1);
+        assertEquals(new HashSet<Integer>(Arrays.asList(1, 2)), journal.find(100L));
+        // Mismatching part size
+        assertTrue(journal.find(50L).isEmpty());
+        journal.create(100L);
+        assertTrue(journal.find(100L).isEmpty());
+        journal.delete();
+        assertFalse(journal.exists());
+    }
+}
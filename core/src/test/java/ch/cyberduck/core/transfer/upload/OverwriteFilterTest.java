@@ -7,6 +7,7 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.NullWriteFeature;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.TestProtocol;
@@ -14,12 +15,20 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.io.StreamingChecksum;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledUploadSymlinkResolver;
 
 import org.junit.Test;
 
+import java.io.InputStream;
 import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.*;
 
@@ -172,4 +181,62 @@ public class OverwriteFilterTest {
         );
         f.prepare(new Path("a", EnumSet.of(Path.Type.directory)), new NullLocal(System.getProperty("java.io.tmpdir")), new TransferStatus().exists(true), new DisabledProgressListener());
     }
+
+    @Test
+    public void testChecksumStreaming() throws Exception {
+        final AtomicBoolean computed = new AtomicBoolean();
+        final AtomicBoolean streaming = new AtomicBoolean();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Write.class) {
+                    return (T) new NullWriteFeature(this) {
+                        @Override
+                        public ChecksumCompute checksum(final Path file) {
+                            return new ChecksumCompute() {
+                                @Override
+                                public Checksum compute(final InputStream in, final TransferStatus status) {
+                                    computed.set(true);
+                                    return Checksum.parse("d41d8cd98f00b204e9800998ecf8427e");
+                                }
+                            };
+                        }
+                    };
+                }
+                if(type == Upload.class) {
+                    final Write<Void> writer = this._getFeature(Write.class);
+                    final class StreamingUploadFeature extends DefaultUploadFeature<Void> implements StreamingChecksum {
+                        public StreamingUploadFeature() {
+                            super(writer);
+                        }
+
+                        @Override
+                        public boolean isStreaming(final Path file, final TransferStatus status) {
+                            return streaming.get();
+                        }
+                    }
+                    return (T) new StreamingUploadFeature();
+                }
+                return super._getFeature(type);
+            }
+        };
+        final UploadFilterOptions options = new UploadFilterOptions();
+        options.checksum = true;
+        final OverwriteFilter f = new OverwriteFilter(new DisabledUploadSymlinkResolver(), session, options);
+        final NullLocal local = new NullLocal("/t") {
+            @Override
+            public boolean isFile() {
+                return true;
+            }
+        };
+        streaming.set(true);
+        assertEquals(Checksum.NONE, f.prepare(new Path("/t", EnumSet.of(Path.Type.file)), local,
+            new TransferStatus(), new DisabledProgressListener()).getChecksum());
+        assertFalse(computed.get());
+        streaming.set(false);
+        assertEquals(Checksum.parse("d41d8cd98f00b204e9800998ecf8427e"), f.prepare(new Path("/t", EnumSet.of(Path.Type.file)), local,
+            new TransferStatus(), new DisabledProgressListener()).getChecksum());
+        assertTrue(computed.get());
+    }
 }
@@ -0,0 +1,126 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.PasswordStore;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Vault;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DecryptingListProgressListenerTest {
+
+    @Test
+    public void testChunk() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Path folder = new Path("/d", EnumSet.of(Path.Type.directory));
+        final DecryptingListProgressListener listener = new DecryptingListProgressListener(null, new TestVault() {
+            @Override
+            public Path decrypt(final Session<?> session, final Path file) throws BackgroundException {
+                count.incrementAndGet();
+                if(file.getName().equals("invalid")) {
+                    throw new NotfoundException(file.getName());
+                }
+                return new Path(folder, file.getName().toUpperCase(), EnumSet.of(Path.Type.file, Path.Type.decrypted));
+            }
+        }, new DisabledListProgressListener());
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(folder, "a", EnumSet.of(Path.Type.file)));
+        list.add(new Path(folder, "invalid", EnumSet.of(Path.Type.file)));
+        list.add(new Path(folder, "b", EnumSet.of(Path.Type.file)));
+        listener.chunk(folder, list);
+        assertEquals(3, count.get());
+        list.add(new Path(folder, "c", EnumSet.of(Path.Type.file)));
+        list.add(new Path(folder, "d", EnumSet.of(Path.Type.file)));
+        listener.chunk(folder, list);
+        // Each file decrypted once
+        assertEquals(5, count.get());
+        assertEquals("A", list.get(0).getName());
+        assertEquals("invalid", list.get(1).getName());
+        assertFalse(list.get(1).getType().contains(Path.Type.encrypted));
+        assertEquals("B", list.get(2).getName());
+        assertEquals("C", list.get(3).getName());
+        assertEquals("D", list.get(4).getName());
+    }
+
+    private static abstract class TestVault implements Vault {
+        @Override
+        public Path create(final Session<?> session, final String region, final VaultCredentials credentials, final PasswordStore keychain) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Vault load(final Session<?> session, final PasswordCallback prompt, final PasswordStore keychain) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            //
+        }
+
+        @Override
+        public boolean contains(final Path file) {
+            return true;
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file) {
+            return file;
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file, final boolean metadata) {
+            return file;
+        }
+
+        @Override
+        public long toCiphertextSize(final long cleartextFileSize) {
+            return cleartextFileSize;
+        }
+
+        @Override
+        public long toCleartextSize(final long ciphertextFileSize) {
+            return ciphertextFileSize;
+        }
+
+        @Override
+        public <T> T getFeature(final Session<?> session, final Class<T> type, final T delegate) {
+            return delegate;
+        }
+
+        @Override
+        public State getState() {
+            return State.open;
+        }
+
+        @Override
+        public Path getHome() {
+            return null;
+        }
+    }
+}
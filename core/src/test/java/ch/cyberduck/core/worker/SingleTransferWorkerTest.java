@@ -3,11 +3,15 @@ package ch.cyberduck.core.worker;
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
@@ -20,11 +24,24 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.UploadTransfer;
 import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -291,4 +308,244 @@ public class SingleTransferWorkerTest {
             throw e;
         }
     }
+
+    @Test
+    public void testUploadPipeline() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() throws LocalAccessDeniedException {
+                AttributedList<Local> l = new AttributedList<Local>();
+                l.add(new NullLocal(this.getAbsolute(), "c") {
+                    @Override
+                    public boolean exists() {
+                        return true;
+                    }
+                });
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final List<Path> transferred = new ArrayList<Path>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                transferred.add(file);
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        final Cache<TransferItem> cache = new TransferItemCache(Integer.MAX_VALUE);
+        PreferencesFactory.get().setProperty("queue.prepare.pipeline", true);
+        try {
+            new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                    new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), cache) {
+                @Override
+                public Future<TransferStatus> transfer(final TransferItem item, final TransferAction action) throws BackgroundException {
+                    // Files are transferred when prepared
+                    fail();
+                    return null;
+                }
+            }.run(session, session);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.prepare.pipeline");
+        }
+        // Folder is created before its children are prepared
+        assertEquals(Arrays.asList(root, child), transferred);
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void testDownloadSegmentsRename() throws Exception {
+        final String name = String.format("%s.txt", UUID.randomUUID().toString());
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), name);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write("existing", out, StandardCharsets.UTF_8);
+        out.close();
+        final Path file = new Path(String.format("/%s", name), EnumSet.of(Path.Type.file));
+        file.attributes().setSize(300L);
+        final Set<Local> targets = Collections.newSetFromMap(new ConcurrentHashMap<Local, Boolean>());
+        PreferencesFactory.get().setProperty("queue.download.segments", true);
+        PreferencesFactory.get().setProperty("queue.download.segments.threshold", 1L);
+        PreferencesFactory.get().setProperty("queue.download.segments.size", 100L);
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), file, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                assertTrue(status.isSegment());
+                targets.add(local);
+                status.setComplete();
+                return file;
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return super.filter(source, destination, action, listener).withAttributes(new AttributesFinder() {
+                    @Override
+                    public PathAttributes find(final Path file) throws BackgroundException {
+                        return file.attributes();
+                    }
+
+                    @Override
+                    public AttributesFinder withCache(final Cache<Path> cache) {
+                        return this;
+                    }
+                });
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new NullReadFeature() {
+                        @Override
+                        public boolean offset(final Path file) {
+                            return true;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        try {
+            new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.rename;
+                }
+            }, new DisabledTransferErrorCallback(),
+                    new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(),
+                    new TransferItemCache(Integer.MAX_VALUE)).run(session, session);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.download.segments");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.threshold");
+            PreferencesFactory.get().deleteProperty("queue.download.segments.size");
+        }
+        // Segments are written to renamed target
+        assertEquals(1, targets.size());
+        final Local renamed = targets.iterator().next();
+        assertNotEquals(local, renamed);
+        assertEquals(300L, renamed.attributes().getSize());
+        // Existing file is kept
+        final InputStream in = local.getInputStream();
+        assertEquals("existing", IOUtils.toString(in, StandardCharsets.UTF_8));
+        in.close();
+        renamed.delete();
+        local.delete();
+    }
+
+    @Test
+    public void testUploadPipelineRetry() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write("0123456789", out, StandardCharsets.UTF_8);
+        out.close();
+        final Path file = new Path(String.format("/%s", local.getName()), EnumSet.of(Path.Type.file));
+        final AtomicInteger attempts = new AtomicInteger();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), file, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                if(attempts.incrementAndGet() == 1) {
+                    throw new ConnectionTimeoutException("t", new SocketTimeoutException());
+                }
+                assertEquals(1, status.getRetry());
+                return file;
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return AttributedList.emptyList();
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.prepare.pipeline", true);
+        try {
+            new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                    new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(),
+                    new TransferItemCache(Integer.MAX_VALUE)).run(session, session);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.prepare.pipeline");
+        }
+        assertEquals(2, attempts.get());
+        // Size is only added once when retrying
+        assertEquals(10L, t.getSize(), 0L);
+        local.delete();
+    }
+
+    @Test(timeout = 10000L)
+    public void testUploadPipelineFailure() throws Exception {
+        final Local local = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(local);
+        final Path file = new Path(String.format("/%s", local.getName()), EnumSet.of(Path.Type.file));
+        final AtomicReference<TransferStatus> failed = new AtomicReference<TransferStatus>();
+        final Transfer t = new UploadTransfer(new Host(new TestProtocol()), file, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                failed.set(status);
+                throw new ConnectionTimeoutException("t", new SocketTimeoutException());
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return AttributedList.emptyList();
+            }
+        };
+        PreferencesFactory.get().setProperty("queue.prepare.pipeline", true);
+        try {
+            new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                    new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(),
+                    new TransferItemCache(Integer.MAX_VALUE)).run(session, session);
+            fail();
+        }
+        catch(BackgroundException e) {
+            // Expected
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.prepare.pipeline");
+        }
+        // Status is marked failed when retries are exhausted
+        assertFalse(failed.get().await());
+        local.delete();
+    }
 }
@@ -0,0 +1,143 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.NamedThreadFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypts or decrypts a window of chunks of a single stream in parallel on worker threads shared by all
+ * streams. Results are returned in the order chunks were submitted. The window starts with a single chunk and
+ * is doubled whenever a chunk is taken until the maximum is reached.
+ */
+final class CryptoChunkPipeline {
+    private static final Logger log = Logger.getLogger(CryptoChunkPipeline.class);
+
+    private static final int concurrency = Math.max(1,
+        PreferencesFactory.get().getInteger("cryptomator.chunks.concurrency"));
+
+    private static final ExecutorService workers;
+
+    static {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency,
+            PreferencesFactory.get().getLong("threading.pool.keepalive.seconds"), TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("cryptor"));
+        executor.allowCoreThreadTimeOut(true);
+        workers = executor;
+    }
+
+    /**
+     * @return Pipeline with window from preferences or null if chunks should be processed on the calling thread
+     */
+    static CryptoChunkPipeline get() {
+        final int window = PreferencesFactory.get().getInteger("cryptomator.chunks.window");
+        if(concurrency < 2 || window < 2) {
+            return null;
+        }
+        return new CryptoChunkPipeline(1, window);
+    }
+
+    /**
+     * Maximum number of chunks submitted and not yet taken
+     */
+    private final int window;
+    /**
+     * Current number of chunks submitted and not yet taken
+     */
+    private int limit;
+
+    private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<Future<ByteBuffer>>();
+
+    CryptoChunkPipeline(final int window) {
+        this(window, window);
+    }
+
+    /**
+     * @param initial Initial window
+     * @param window  Maximum window
+     */
+    CryptoChunkPipeline(final int initial, final int window) {
+        this.window = window;
+        this.limit = Math.min(Math.max(1, initial), window);
+    }
+
+    boolean isFull() {
+        return pending.size() >= limit;
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    void submit(final Callable<ByteBuffer> chunk) {
+        pending.add(workers.submit(chunk));
+    }
+
+    /**
+     * Wait for the result of the oldest chunk submitted
+     *
+     * @return Encrypted or decrypted chunk
+     */
+    ByteBuffer take() throws IOException {
+        // Read ahead further as stream is consumed
+        limit = Math.min(window, limit * 2);
+        final Future<ByteBuffer> next = pending.poll();
+        try {
+            return next.get();
+        }
+        catch(InterruptedException e) {
+            this.cancel();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            this.cancel();
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Discard all pending chunks
+     */
+    void cancel() {
+        if(!pending.isEmpty()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Cancel %d pending chunks", pending.size()));
+            }
+        }
+        for(Future<ByteBuffer> f : pending) {
+            f.cancel(false);
+        }
+        pending.clear();
+    }
+}
@@ -15,6 +15,8 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.SegmentBufferPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -24,6 +26,7 @@ import org.cryptomator.cryptolib.api.FileHeader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
 
 public class CryptoInputStream extends ProxyInputStream {
 
@@ -39,6 +42,16 @@ public class CryptoInputStream extends ProxyInputStream {
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    private final SegmentBufferPool pool;
+    /**
+     * Decrypt chunks in parallel or null to decrypt on calling thread
+     */
+    private final CryptoChunkPipeline pipeline;
+    /**
+     * No more ciphertext to read ahead
+     */
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset) throws IOException {
         super(proxy);
         this.proxy = proxy;
@@ -46,6 +59,8 @@ public class CryptoInputStream extends ProxyInputStream {
         this.header = header;
         this.chunkSize = cryptor.fileContentCryptor().ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.pool = SegmentBufferPool.get(chunkSize);
+        this.pipeline = CryptoChunkPipeline.get();
     }
 
     @Override
@@ -74,25 +89,90 @@ public class CryptoInputStream extends ProxyInputStream {
         return read;
     }
 
+    /**
+     * Skip cleartext by advancing in decrypted chunks without copying
+     */
     @Override
     public long skip(final long len) throws IOException {
-        return IOUtils.skip(this, len);
+        long remaining = len;
+        while(remaining > 0) {
+            if(!buffer.hasRemaining()) {
+                if(this.readNextChunk() == IOUtils.EOF) {
+                    break;
+                }
+            }
+            final int skipped = (int) Math.min(remaining, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            remaining -= skipped;
+        }
+        return len - remaining;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(null != pipeline) {
+            pipeline.cancel();
+        }
+        super.close();
     }
 
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
+        if(null == pipeline) {
+            final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
+            final int read = IOUtils.read(proxy, ciphertextBuf.array());
+            if(read == 0) {
+                return IOUtils.EOF;
+            }
+            ciphertextBuf.position(read);
+            ciphertextBuf.flip();
+            buffer = this.decrypt(ciphertextBuf, chunkIndexOffset++, null);
+            return read;
+        }
+        // Read ahead ciphertext chunks to decrypt in parallel
+        while(!eof && !pipeline.isFull()) {
+            final byte[] segment = pool.acquire();
+            final int read;
+            try {
+                read = IOUtils.read(proxy, segment);
+            }
+            catch(IOException e) {
+                pool.release(segment);
+                pipeline.cancel();
+                throw e;
+            }
+            if(read < chunkSize) {
+                // Last chunk
+                eof = true;
+            }
+            if(read == 0) {
+                pool.release(segment);
+                break;
+            }
+            final ByteBuffer ciphertextBuf = ByteBuffer.wrap(segment, 0, read);
+            final long chunk = chunkIndexOffset++;
+            pipeline.submit(new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() throws IOException {
+                    return decrypt(ciphertextBuf, chunk, segment);
+                }
+            });
+        }
+        if(pipeline.isEmpty()) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
+        buffer = pipeline.take();
+        return buffer.remaining();
+    }
+
+    private ByteBuffer decrypt(final ByteBuffer ciphertext, final long chunk, final byte[] segment) throws IOException {
         try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            return cryptor.fileContentCryptor().decryptChunk(ciphertext, chunk, header, true);
         }
         catch(CryptoException e) {
             throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
         }
-        return read;
+        finally {
+            pool.release(segment);
+        }
     }
 }
@@ -17,6 +17,7 @@ package ch.cyberduck.core.cryptomator;
 
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
 
@@ -29,6 +30,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -36,11 +38,23 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
     public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
                               final NonceGenerator nonces, final long chunkIndexOffset) {
-        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
+        super(segmenting(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
                 cryptor.fileContentCryptor().cleartextChunkSize()));
         this.proxy = proxy;
     }
 
+    /**
+     * @return Stream passing segments of chunk size with ownership to encryption
+     */
+    private static MemorySegementingOutputStream segmenting(final EncryptingOutputStream proxy, final int chunksize) {
+        return new MemorySegementingOutputStream(proxy, chunksize) {
+            @Override
+            protected void handoff(final OutputStream out, final byte[] segment, final int length) throws IOException {
+                proxy.segment(segment, length);
+            }
+        };
+    }
+
     @Override
     public void write(final int b) throws IOException {
         throw new IOException(new UnsupportedOperationException());
@@ -61,6 +75,11 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final FileHeader header;
         private final int chunksize;
         private final NonceGenerator nonces;
+        private final SegmentBufferPool pool;
+        /**
+         * Encrypt chunks in parallel or null to encrypt on calling thread
+         */
+        private final CryptoChunkPipeline pipeline;
         private long chunkIndexOffset;
 
         public EncryptingOutputStream(final OutputStream proxy, final Cryptor cryptor, final FileHeader header,
@@ -70,6 +89,8 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
             this.header = header;
             this.chunksize = cryptor.fileContentCryptor().cleartextChunkSize();
             this.nonces = nonces;
+            this.pool = SegmentBufferPool.get(chunksize);
+            this.pipeline = CryptoChunkPipeline.get();
             this.chunkIndexOffset = chunkIndexOffset;
         }
 
@@ -78,20 +99,97 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
             this.write(b, 0, b.length);
         }
 
+        /**
+         * Copies chunks of data written
+         */
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                this.chunk(ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)), null);
+            }
+        }
+
+        /**
+         * Takes ownership of segment passed by {@link MemorySegementingOutputStream} and returns it to the pool
+         * after encryption.
+         *
+         * @param segment Segment obtained from pool with at most a single chunk
+         * @param length  Number of bytes in segment
+         */
+        public void segment(final byte[] segment, final int length) throws IOException {
+            this.chunk(ByteBuffer.wrap(segment, 0, length), segment);
+        }
+
+        /**
+         * @param segment Segment to release after encryption or null
+         */
+        private void chunk(final ByteBuffer cleartext, final byte[] segment) throws IOException {
+            // Chunk number and nonce are assigned in order of writes
+            final long chunk = chunkIndexOffset++;
+            final byte[] nonce = nonces.next();
+            if(null == pipeline) {
+                super.write(this.encrypt(cleartext, chunk, nonce, segment).array());
+            }
+            else {
+                if(pipeline.isFull()) {
+                    this.drain(1);
                 }
+                pipeline.submit(new Callable<ByteBuffer>() {
+                    @Override
+                    public ByteBuffer call() throws IOException {
+                        return encrypt(cleartext, chunk, nonce, segment);
+                    }
+                });
+            }
+        }
+
+        private ByteBuffer encrypt(final ByteBuffer cleartext, final long chunk, final byte[] nonce, final byte[] segment) throws IOException {
+            try {
+                return cryptor.fileContentCryptor().encryptChunk(cleartext, chunk, header, nonce);
             }
             catch(CryptoException e) {
                 throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
             }
+            finally {
+                pool.release(segment);
+            }
+        }
+
+        /**
+         * Write encrypted chunks in order
+         *
+         * @param count Maximum number of chunks to write
+         */
+        private void drain(final int count) throws IOException {
+            try {
+                for(int i = 0; i < count && !pipeline.isEmpty(); i++) {
+                    super.write(pipeline.take().array());
+                }
+            }
+            catch(IOException e) {
+                pipeline.cancel();
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if(null != pipeline) {
+                this.drain(Integer.MAX_VALUE);
+            }
+            super.flush();
+        }
+
+        /**
+         * Does not close proxy when writing pending chunks fails to not finalize incomplete content
+         */
+        @Override
+        public void close() throws IOException {
+            if(null != pipeline) {
+                this.drain(Integer.MAX_VALUE);
+            }
+            super.close();
         }
     }
 }
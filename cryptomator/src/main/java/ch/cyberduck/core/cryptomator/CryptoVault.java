@@ -49,6 +49,8 @@ import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonParseException;
 
 /**
@@ -76,6 +78,14 @@ public class CryptoVault implements Vault {
     private final CryptoFilenameProvider filenameProvider;
     private final CryptoDirectoryProvider directoryProvider;
 
+    /**
+     * Cleartext filenames by directory ID and ciphertext filename. Accessed concurrently when decrypting listings.
+     */
+    private final Cache<String, String> cleartextNames = CacheBuilder.newBuilder()
+        .maximumSize(preferences.getLong("cryptomator.cache.size"))
+        .recordStats()
+        .build();
+
     private final byte[] pepper;
 
     public CryptoVault(final Path home) {
@@ -216,6 +226,10 @@ public class CryptoVault implements Vault {
             if(filenameProvider != null) {
                 filenameProvider.destroy();
             }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Cleartext filename cache %s", cleartextNames.stats()));
+            }
+            cleartextNames.invalidateAll();
         }
         cryptor = null;
     }
@@ -375,8 +389,7 @@ public class CryptoVault implements Vault {
         if(m.find()) {
             final String ciphertext = m.group(1);
             try {
-                final String cleartextFilename = cryptor.fileNameCryptor().decryptFilename(
-                    ciphertext, file.getParent().attributes().getDirectoryId().getBytes(StandardCharsets.UTF_8));
+                final String cleartextFilename = this.decryptFilename(ciphertext, file.getParent().attributes().getDirectoryId());
                 final PathAttributes attributes = new PathAttributes(file.attributes());
                 if(inflated.getName().startsWith(DIR_PREFIX)) {
                     final Permission permission = attributes.getPermission();
@@ -410,6 +423,17 @@ public class CryptoVault implements Vault {
         }
     }
 
+    private String decryptFilename(final String ciphertext, final String directoryId) throws AuthenticationFailedException {
+        final String key = String.format("%s/%s", directoryId, ciphertext);
+        final String cached = cleartextNames.getIfPresent(key);
+        if(cached != null) {
+            return cached;
+        }
+        final String cleartext = cryptor.fileNameCryptor().decryptFilename(ciphertext, directoryId.getBytes(StandardCharsets.UTF_8));
+        cleartextNames.put(key, cleartext);
+        return cleartext;
+    }
+
     @Override
     public long toCiphertextSize(final long cleartextFileSize) {
         if(-1L == cleartextFileSize) {
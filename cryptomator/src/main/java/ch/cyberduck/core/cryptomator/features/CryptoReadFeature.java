@@ -26,6 +26,7 @@ import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
@@ -51,21 +52,47 @@ public class CryptoReadFeature implements Read {
             final Path encrypted = vault.encrypt(session, file);
             // Header
             final Cryptor cryptor = vault.getCryptor();
+            final int headerSize = cryptor.fileHeaderCryptor().headerSize();
             final TransferStatus headerStatus = new TransferStatus(status);
             headerStatus.setOffset(0);
-            final InputStream in = proxy.read(encrypted, headerStatus.length(status.isAppend() ?
-                    cryptor.fileHeaderCryptor().headerSize() :
-                    vault.toCiphertextSize(status.getLength())), callback);
-            final ByteBuffer headerBuffer = ByteBuffer.allocate(cryptor.fileHeaderCryptor().headerSize());
+            final long length;
+            if(status.isAppend()) {
+                // Ciphertext of chunks containing the requested range only
+                length = this.length(status.getOffset(), status.getLength(), file.attributes().getSize());
+                if(0 == this.chunk(status.getOffset())) {
+                    // First chunk directly follows header
+                    headerStatus.setLength(-1L == length ? -1L : headerSize + length);
+                }
+                else {
+                    headerStatus.setLength(headerSize);
+                }
+            }
+            else {
+                length = -1L;
+                headerStatus.setLength(vault.toCiphertextSize(status.getLength()));
+            }
+            final InputStream in = proxy.read(encrypted, headerStatus, callback);
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(headerSize);
             final int read = IOUtils.read(in, headerBuffer.array());
             final FileHeader header = cryptor.fileHeaderCryptor().decryptHeader(headerBuffer);
             if(status.isAppend()) {
-                IOUtils.closeQuietly(in);
-                final TransferStatus s = new TransferStatus(status).length(-1L);
-                s.setOffset(this.align(status.getOffset()));
-                final CryptoInputStream crypto = new CryptoInputStream(proxy.read(encrypted, s, callback), cryptor, header, this.chunk(status.getOffset()));
+                final CryptoInputStream crypto;
+                if(0 == this.chunk(status.getOffset())) {
+                    crypto = new CryptoInputStream(in, cryptor, header, 0L);
+                }
+                else {
+                    IOUtils.closeQuietly(in);
+                    final TransferStatus s = new TransferStatus(status).length(length);
+                    s.setOffset(this.align(status.getOffset()));
+                    crypto = new CryptoInputStream(proxy.read(encrypted, s, callback), cryptor, header, this.chunk(status.getOffset()));
+                }
+                // Discard cleartext preceding offset in first chunk
                 crypto.skip(this.position(status.getOffset()));
-                return crypto;
+                if(-1L == status.getLength()) {
+                    return crypto;
+                }
+                // Discard cleartext following range in last chunk
+                return new BoundedInputStream(crypto, status.getLength());
             }
             else {
                 return new CryptoInputStream(in, cryptor, header, vault.numberOfChunks(status.getOffset()));
@@ -76,6 +103,26 @@ public class CryptoReadFeature implements Read {
         }
     }
 
+    /**
+     * @param offset Cleartext offset
+     * @param length Cleartext length of range or -1 if unknown
+     * @param size   Cleartext size of file or -1 if unknown
+     * @return Length of ciphertext from aligned offset containing all chunks of range or -1 to read until end of file
+     */
+    protected long length(final long offset, final long length, final long size) {
+        if(-1L == length) {
+            return -1L;
+        }
+        final long end = offset + length;
+        if(end == size) {
+            // Last chunk of file may be shorter
+            return vault.toCiphertextSize(end) - this.align(offset);
+        }
+        return vault.getCryptor().fileHeaderCryptor().headerSize()
+                + (long) vault.numberOfChunks(end) * vault.getCryptor().fileContentCryptor().ciphertextChunkSize()
+                - this.align(offset);
+    }
+
     protected long chunk(final long offset) {
         return offset / vault.getCryptor().fileContentCryptor().cleartextChunkSize();
     }
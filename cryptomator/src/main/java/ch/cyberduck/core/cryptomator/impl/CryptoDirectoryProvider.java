@@ -30,13 +30,14 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
-import java.util.Map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 public class CryptoDirectoryProvider {
     private static final Logger log = Logger.getLogger(CryptoDirectoryProvider.class);
@@ -51,8 +52,13 @@ public class CryptoDirectoryProvider {
     private final RandomStringService random
             = new UUIDRandomStringService();
 
-    private final Map<CacheReference<Path>, String> cache = new LRUMap<CacheReference<Path>, String>(
-            PreferencesFactory.get().getInteger("browser.cache.size"));
+    /**
+     * Directory IDs by cleartext directory. Accessed concurrently when decrypting listings.
+     */
+    private final Cache<CacheReference<Path>, String> cache = CacheBuilder.newBuilder()
+            .maximumSize(PreferencesFactory.get().getLong("cryptomator.cache.size"))
+            .recordStats()
+            .build();
 
     public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator) {
         this.home = vault;
@@ -116,8 +122,9 @@ public class CryptoDirectoryProvider {
             return ROOT_DIR_ID;
         }
         if(StringUtils.isBlank(directoryId)) {
-            if(cache.containsKey(new DefaultPathPredicate(directory))) {
-                return cache.get(new DefaultPathPredicate(directory));
+            final String cached = cache.getIfPresent(new DefaultPathPredicate(directory));
+            if(cached != null) {
+                return cached;
             }
             final String id = this.load(session, directory);
             cache.put(new DefaultPathPredicate(directory), id);
@@ -149,10 +156,13 @@ public class CryptoDirectoryProvider {
      * Remove from cache
      */
     public void delete(final Path directory) {
-        cache.remove(new DefaultPathPredicate(directory));
+        cache.invalidate(new DefaultPathPredicate(directory));
     }
 
     public void destroy() {
-        cache.clear();
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Directory ID cache %s", cache.stats()));
+        }
+        cache.invalidateAll();
     }
 }
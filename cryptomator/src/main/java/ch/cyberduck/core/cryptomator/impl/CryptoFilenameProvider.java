@@ -25,13 +25,13 @@ import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 import org.cryptomator.cryptolib.common.MessageDigestSupplier;
 
 import java.util.EnumSet;
-import java.util.Map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.BaseEncoding;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -47,8 +47,21 @@ public class CryptoFilenameProvider {
 
     private final Path metadataRoot;
 
-    private final Map<String, String> cache = new LRUMap<String, String>(
-        PreferencesFactory.get().getInteger("browser.cache.size"));
+    /**
+     * Shortened names by long name
+     */
+    private final Cache<String, String> cache = CacheBuilder.newBuilder()
+        .maximumSize(PreferencesFactory.get().getLong("cryptomator.cache.size"))
+        .recordStats()
+        .build();
+
+    /**
+     * Long names by shortened name. Never changes as the shortened name is derived from the hash of the long name.
+     */
+    private final Cache<String, String> inflated = CacheBuilder.newBuilder()
+        .maximumSize(PreferencesFactory.get().getLong("cryptomator.cache.size"))
+        .recordStats()
+        .build();
 
     public CryptoFilenameProvider(final Path vault) {
         this.metadataRoot = new Path(vault, METADATA_DIR_NAME, vault.getType());
@@ -59,15 +72,25 @@ public class CryptoFilenameProvider {
     }
 
     public String inflate(final Session<?> session, final String shortName) throws BackgroundException {
-        return new ContentReader(session).read(resolve(shortName));
+        final String cached = inflated.getIfPresent(shortName);
+        if(cached != null) {
+            return cached;
+        }
+        // Filenames may be decrypted in parallel but the connection must only be used by a single thread
+        synchronized(session) {
+            final String filename = new ContentReader(session).read(resolve(shortName));
+            inflated.put(shortName, filename);
+            return filename;
+        }
     }
 
     public String deflate(final Session<?> session, final String filename) throws BackgroundException {
         if(filename.length() < NAME_SHORTENING_THRESHOLD) {
             return filename;
         }
-        if(cache.containsKey(filename)) {
-            return cache.get(filename);
+        final String cached = cache.getIfPresent(filename);
+        if(cached != null) {
+            return cached;
         }
         final byte[] longFileNameBytes = filename.getBytes(UTF_8);
         final byte[] hash = MessageDigestSupplier.SHA1.get().digest(longFileNameBytes);
@@ -93,6 +116,7 @@ public class CryptoFilenameProvider {
             log.info(String.format("Deflated %s to %s", filename, shortName));
         }
         cache.put(filename, shortName);
+        inflated.put(shortName, filename);
         return shortName;
     }
 
@@ -105,6 +129,10 @@ public class CryptoFilenameProvider {
     }
 
     public void destroy() {
-        cache.clear();
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Shortened filename cache %s and inflated filename cache %s", cache.stats(), inflated.stats()));
+        }
+        cache.invalidateAll();
+        inflated.invalidateAll();
     }
 }
@@ -0,0 +1,123 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+
+public class CryptoChunkPipelineTest {
+
+    @Test
+    public void testTakeInOrder() throws Exception {
+        final CryptoChunkPipeline pipeline = new CryptoChunkPipeline(4);
+        for(int i = 0; i < 4; i++) {
+            final int chunk = i;
+            pipeline.submit(new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() throws Exception {
+                    // Complete later chunks first
+                    Thread.sleep((4 - chunk) * 20L);
+                    return ByteBuffer.wrap(new byte[]{(byte) chunk});
+                }
+            });
+        }
+        assertTrue(pipeline.isFull());
+        for(int i = 0; i < 4; i++) {
+            assertEquals(i, pipeline.take().get());
+            assertFalse(pipeline.isFull());
+        }
+        assertTrue(pipeline.isEmpty());
+    }
+
+    @Test
+    public void testGrowWindow() throws Exception {
+        final CryptoChunkPipeline pipeline = new CryptoChunkPipeline(1, 4);
+        final Callable<ByteBuffer> chunk = new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                return ByteBuffer.allocate(0);
+            }
+        };
+        pipeline.submit(chunk);
+        assertTrue(pipeline.isFull());
+        pipeline.take();
+        for(int i = 0; i < 2; i++) {
+            assertFalse(pipeline.isFull());
+            pipeline.submit(chunk);
+        }
+        assertTrue(pipeline.isFull());
+        pipeline.take();
+        for(int i = 0; i < 3; i++) {
+            assertFalse(pipeline.isFull());
+            pipeline.submit(chunk);
+        }
+        // Maximum window reached
+        assertTrue(pipeline.isFull());
+        pipeline.take();
+        assertFalse(pipeline.isFull());
+        pipeline.submit(chunk);
+        assertTrue(pipeline.isFull());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final CryptoChunkPipeline pipeline = new CryptoChunkPipeline(4);
+        pipeline.submit(new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                throw new IOException("f");
+            }
+        });
+        pipeline.submit(new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                return ByteBuffer.allocate(0);
+            }
+        });
+        try {
+            pipeline.take();
+            fail();
+        }
+        catch(IOException e) {
+            assertEquals("f", e.getMessage());
+        }
+        // Pending chunks discarded
+        assertTrue(pipeline.isEmpty());
+    }
+
+    @Test
+    public void testFailureRuntime() throws Exception {
+        final CryptoChunkPipeline pipeline = new CryptoChunkPipeline(2);
+        pipeline.submit(new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() {
+                throw new IllegalStateException("f");
+            }
+        });
+        try {
+            pipeline.take();
+            fail();
+        }
+        catch(IOException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -25,23 +25,34 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultCredentials;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
+import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
 
 public class CryptoOutputStreamTest {
 
+    @BeforeClass
+    public static void pipeline() {
+        PreferencesFactory.get().setProperty("cryptomator.chunks.concurrency", 4);
+        PreferencesFactory.get().setProperty("cryptomator.chunks.window", 4);
+    }
+
     private CryptoVault getVault() throws Exception {
         final Path home = new Path("/vault", EnumSet.of(Path.Type.directory));
         final NullSession session = new NullSession(new Host(new TestProtocol())) {
@@ -150,4 +161,83 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
+
+    @Test
+    public void testWriteMultipleChunksParallel() throws Exception {
+        assertNotNull(CryptoChunkPipeline.get());
+        final CryptoVault vault = this.getVault();
+        final Cryptor cryptor = vault.getCryptor();
+        final int cleartextChunkSize = cryptor.fileContentCryptor().cleartextChunkSize();
+        final int ciphertextChunkSize = cryptor.fileContentCryptor().ciphertextChunkSize();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = cryptor.fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, cryptor, header, new RandomNonceGenerator(), 0);
+        // More chunks than the window with partial last chunk
+        final byte[] cleartext = RandomUtils.nextBytes(10 * cleartextChunkSize + 100);
+        for(int offset = 0; offset < cleartext.length; offset += 10000) {
+            stream.write(cleartext, offset, Math.min(10000, cleartext.length - offset));
+        }
+        stream.close();
+
+        final byte[] ciphertext = cipherText.toByteArray();
+        assertEquals(10 * ciphertextChunkSize + 100 + ciphertextChunkSize - cleartextChunkSize, ciphertext.length);
+        // Each chunk is written at its position and encrypted with its chunk number
+        for(int chunk = 0; chunk <= 10; chunk++) {
+            final int offset = chunk * ciphertextChunkSize;
+            final ByteBuffer decrypted = cryptor.fileContentCryptor().decryptChunk(
+                    ByteBuffer.wrap(ciphertext, offset, Math.min(ciphertextChunkSize, ciphertext.length - offset)), chunk, header, true);
+            final byte[] actual = new byte[decrypted.remaining()];
+            decrypted.get(actual);
+            assertArrayEquals(Arrays.copyOfRange(cleartext, chunk * cleartextChunkSize,
+                    Math.min(cleartext.length, (chunk + 1) * cleartextChunkSize)), actual);
+        }
+
+        final byte[] read = new byte[cleartext.length];
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(ciphertext), cryptor, header, 0);
+        IOUtils.readFully(cryptoInputStream, read);
+        assertEquals(IOUtils.EOF, cryptoInputStream.read(new byte[1]));
+        cryptoInputStream.close();
+
+        assertArrayEquals(cleartext, read);
+    }
+
+    @Test
+    public void testReadTamperedChunkParallel() throws Exception {
+        assertNotNull(CryptoChunkPipeline.get());
+        final CryptoVault vault = this.getVault();
+        final Cryptor cryptor = vault.getCryptor();
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = cryptor.fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, cryptor, header, new RandomNonceGenerator(), 0);
+        final byte[] cleartext = RandomUtils.nextBytes(3 * cryptor.fileContentCryptor().cleartextChunkSize());
+        stream.write(cleartext, 0, cleartext.length);
+        stream.close();
+
+        final byte[] ciphertext = cipherText.toByteArray();
+        // Modify payload of second chunk
+        ciphertext[cryptor.fileContentCryptor().ciphertextChunkSize() + 100] ^= 1;
+        final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(ciphertext), cryptor, header, 0);
+        final byte[] read = new byte[cleartext.length];
+        try {
+            IOUtils.readFully(cryptoInputStream, read);
+            fail();
+        }
+        catch(IOException e) {
+            // Failure decrypting chunk on worker thread
+            assertTrue(e.getCause() instanceof CryptoAuthenticationException);
+        }
+        finally {
+            cryptoInputStream.close();
+        }
+    }
 }
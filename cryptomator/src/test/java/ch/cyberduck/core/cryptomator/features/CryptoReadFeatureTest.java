@@ -103,6 +103,17 @@ public class CryptoReadFeatureTest {
             assertEquals(0, read.position(32768));
             assertEquals(1, read.position(32769));
         }
+        {
+            assertEquals(-1L, read.length(0L, -1L, 32768L));
+            // Last chunk of file
+            assertEquals(48 + 1, read.length(0L, 1L, 1L));
+            assertEquals(48 + 32768 + 48 + 1, read.length(0L, 32769L, 32769L));
+            assertEquals(48 + 1, read.length(32768L, 1L, 32769L));
+            // Range ending in middle of file
+            assertEquals(48 + 32768, read.length(0L, 1L, 32769L));
+            assertEquals(48 + 32768, read.length(1L, 32767L, 65536L));
+            assertEquals(2 * (48 + 32768), read.length(32767L, 2L, 65537L));
+        }
         vault.close();
     }
 }
@@ -50,6 +50,7 @@ public class SDSDeleteFeature implements Delete {
             try {
                 new NodesApi(session.getClient()).deleteNode(StringUtils.EMPTY,
                     Long.parseLong(new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener())));
+                session.getFileidCache().remove(file);
             }
             catch(ApiException e) {
                 throw new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
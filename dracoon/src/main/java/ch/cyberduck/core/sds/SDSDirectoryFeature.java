@@ -54,6 +54,7 @@ public class SDSDirectoryFeature implements Directory {
                 roomRequest.setAdminGroupIds(null);
                 roomRequest.setName(folder.getName());
                 final Node r = new NodesApi(session.getClient()).createRoom(StringUtils.EMPTY, null, roomRequest);
+                session.getFileidCache().put(folder, String.valueOf(r.getId()));
                 return new Path(folder.getParent(), folder.getName(), EnumSet.of(Path.Type.directory, Path.Type.volume),
                     new PathAttributes(folder.attributes()));
             }
@@ -62,6 +63,7 @@ public class SDSDirectoryFeature implements Directory {
                 folderRequest.setParentId(Long.parseLong(new SDSNodeIdProvider(session).getFileid(folder.getParent(), new DisabledListProgressListener())));
                 folderRequest.setName(folder.getName());
                 final Node f = new NodesApi(session.getClient()).createFolder(StringUtils.EMPTY, folderRequest, null);
+                session.getFileidCache().put(folder, String.valueOf(f.getId()));
                 return new Path(folder.getParent(), folder.getName(), folder.getType(),
                     new PathAttributes(folder.attributes()));
             }
@@ -90,12 +90,14 @@ public class SDSListService implements ListService {
                     }
                     attributes.setCustom(custom);
                     final Path file = new Path(directory, node.getName(), type, attributes);
+                    session.getFileidCache().put(file, String.valueOf(node.getId()));
                     children.add(file);
                     listener.chunk(directory, children);
                 }
                 offset += chunksize;
             }
             while(nodes.getItems().size() == chunksize);
+            session.getFileidCache().retain(directory, children);
         }
         catch(ApiException e) {
             throw new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
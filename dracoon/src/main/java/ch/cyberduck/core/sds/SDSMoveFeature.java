@@ -53,36 +53,38 @@ public class SDSMoveFeature implements Move {
             if(status.isExists()) {
                 new SDSDeleteFeature(session).delete(Collections.singletonList(renamed), connectionCallback, callback);
             }
+            // Node is unchanged when moved or renamed
+            final String nodeid = new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener());
             if(!new SimplePathPredicate(file.getParent()).test(renamed.getParent())) {
                 // Change parent node
                 new NodesApi(session.getClient()).moveNodes(StringUtils.EMPTY,
                     Long.parseLong(new SDSNodeIdProvider(session).getFileid(renamed.getParent(), new DisabledListProgressListener())),
                     new MoveNodesRequest().resolutionStrategy(MoveNodesRequest.ResolutionStrategyEnum.OVERWRITE).addNodeIdsItem(
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(file,
-                            new DisabledListProgressListener()))), null);
+                        Long.parseLong(nodeid)), null);
             }
             if(!StringUtils.equals(file.getName(), renamed.getName())) {
                 if(containerService.isContainer(file)) {
                     new NodesApi(session.getClient()).updateRoom(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(file, new DisabledListProgressListener())),
+                        Long.parseLong(nodeid),
                         new UpdateRoomRequest().name(renamed.getName()), null);
                 }
                 // Rename
                 else if(file.isDirectory()) {
                     new NodesApi(session.getClient()).updateFolder(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(
-                            new Path(renamed.getParent(), file.getName(), file.getType()), new DisabledListProgressListener())),
+                        Long.parseLong(nodeid),
                         new UpdateFolderRequest().name(renamed.getName()), null);
                 }
                 else {
                     new NodesApi(session.getClient()).updateFile(StringUtils.EMPTY,
-                        Long.parseLong(new SDSNodeIdProvider(session).getFileid(
-                            new Path(renamed.getParent(), file.getName(), file.getType()), new DisabledListProgressListener())),
+                        Long.parseLong(nodeid),
                         new UpdateFileRequest().name(renamed.getName()), null);
                 }
             }
+            // Identifiers of descendants are unchanged but no longer found at previous path
+            session.getFileidCache().remove(file);
+            session.getFileidCache().put(renamed, nodeid);
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-                new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
+                new PathAttributes(renamed.attributes()).withVersionId(nodeid));
         }
         catch(ApiException e) {
             throw new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
@@ -33,6 +33,7 @@ import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -64,7 +65,6 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -103,9 +103,10 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
         try {
             final CreateFileUploadResponse response = new NodesApi(session.getClient()).createFileUpload(StringUtils.EMPTY, body);
             final String id = response.getUploadId();
-            final MultipartOutputStream proxy = new MultipartOutputStream(id, file, status);
+            final SegmentBufferPool buffers = SegmentBufferPool.get(PreferencesFactory.get().getInteger("sds.upload.multipart.chunksize"));
+            final MultipartOutputStream proxy = new MultipartOutputStream(id, file, status, buffers);
             return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
-                PreferencesFactory.get().getInteger("sds.upload.multipart.chunksize"))) {
+                buffers.getSize(), buffers)) {
                 @Override
                 public VersionId getStatus() throws BackgroundException {
                     return proxy.getVersionId();
@@ -122,15 +123,17 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final SegmentBufferPool buffers;
 
         private Long offset = 0L;
 
         private VersionId versionId;
 
-        public MultipartOutputStream(final String uploadId, final Path file, final TransferStatus status) {
+        public MultipartOutputStream(final String uploadId, final Path file, final TransferStatus status, final SegmentBufferPool buffers) {
             this.uploadId = uploadId;
             this.file = file;
             this.overall = status;
+            this.buffers = buffers;
         }
 
         @Override
@@ -141,10 +144,19 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
             try {
-                final byte[] content = Arrays.copyOfRange(b, off, len);
                 final HttpEntity entity = MultipartEntityBuilder.create()
                     .setBoundary(DelayedHttpMultipartEntity.DEFAULT_BOUNDARY)
-                    .addPart("file", new ByteArrayBody(content, file.getName()))
+                    .addPart("file", new ByteArrayBody(b, file.getName()) {
+                        @Override
+                        public void writeTo(final OutputStream out) throws IOException {
+                            out.write(b, off, len);
+                        }
+
+                        @Override
+                        public long getContentLength() {
+                            return len;
+                        }
+                    })
                     .build();
                 new DefaultRetryCallable<Void>(new BackgroundExceptionCallable<Void>() {
                     @Override
@@ -155,8 +167,8 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
                             request.setEntity(entity);
                             request.setHeader(SDSSession.SDS_AUTH_TOKEN_HEADER, StringUtils.EMPTY);
                             request.setHeader(HTTP.CONTENT_TYPE, String.format("multipart/form-data; boundary=%s", DelayedHttpMultipartEntity.DEFAULT_BOUNDARY));
-                            if(0L != overall.getLength() && 0 != content.length) {
-                                final HttpRange range = HttpRange.byLength(offset, content.length);
+                            if(0L != overall.getLength() && 0 != len) {
+                                final HttpRange range = HttpRange.byLength(offset, len);
                                 final String header;
                                 if(overall.getLength() == -1L) {
                                     header = String.format("%d-%d/*", range.getStart(), range.getEnd());
@@ -172,7 +184,7 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
                                 switch(response.getStatusLine().getStatusCode()) {
                                     case HttpStatus.SC_CREATED:
                                         // Upload complete
-                                        offset += content.length;
+                                        offset += len;
                                         break;
                                     default:
                                         EntityUtils.updateEntity(response, new BufferedHttpEntity(response.getEntity()));
@@ -204,6 +216,9 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
             catch(BackgroundException e) {
                 throw new IOException(e.getMessage(), e);
             }
+            finally {
+                buffers.release(b);
+            }
         }
 
         @Override
@@ -227,6 +242,7 @@ public class SDSMultipartWriteFeature implements MultipartWrite<VersionId> {
                     body.setFileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
                 }
                 final Node upload = new NodesApi(session.getClient()).completeFileUpload(StringUtils.EMPTY, uploadId, null, body);
+                session.getFileidCache().put(file, String.valueOf(upload.getId()));
                 versionId = new VersionId(String.valueOf(upload.getId()));
             }
             catch(ApiException e) {
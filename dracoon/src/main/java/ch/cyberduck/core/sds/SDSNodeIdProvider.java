@@ -56,6 +56,13 @@ public class SDSNodeIdProvider implements IdProvider {
         if(file.isRoot()) {
             return ROOT_NODE_ID;
         }
+        final String cached = session.getFileidCache().get(file);
+        if(StringUtils.isNotBlank(cached)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Return cached node %s for file %s", cached, file));
+            }
+            return cached;
+        }
         try {
             final String type;
             if(file.isDirectory()) {
@@ -79,6 +86,7 @@ public class SDSNodeIdProvider implements IdProvider {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Return node %s for file %s", node.getId(), file));
                     }
+                    session.getFileidCache().put(file, node.getId().toString());
                     return node.getId().toString();
                 }
             }
@@ -18,6 +18,7 @@ package ch.cyberduck.core.sds;
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.ExpiringObjectHolder;
+import ch.cyberduck.core.FileidCache;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.HostPasswordStore;
@@ -88,6 +89,8 @@ public class SDSSession extends HttpSession<SDSApiClient> {
 
     private final List<KeyValueEntry> configuration = new ArrayList<>();
 
+    private final FileidCache fileid = new FileidCache();
+
     public SDSSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()), key);
     }
@@ -223,9 +226,17 @@ public class SDSSession extends HttpSession<SDSApiClient> {
 
     @Override
     protected void logout() throws BackgroundException {
+        fileid.clear();
         client.getHttpClient().close();
     }
 
+    /**
+     * @return Node identifiers shared by all features of this session
+     */
+    public FileidCache getFileidCache() {
+        return fileid;
+    }
+
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return new SDSListService(this).list(directory, listener);
@@ -19,10 +19,18 @@ package ch.cyberduck.core.ftp;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.ftp.list.FTPDataResponseReader;
+import ch.cyberduck.core.ftp.list.FTPInvalidListException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPCmd;
 import org.apache.commons.net.ftp.FTPReply;
@@ -196,6 +204,65 @@ public class FTPClient extends FTPSClient {
         return results;
     }
 
+    /**
+     * Parse listing while it is received on the data connection
+     *
+     * @param directory Directory to list
+     * @param reader    Parser for lines of listing
+     * @param listener  Notified with entries parsed
+     * @return Parsed entries
+     */
+    public AttributedList<Path> list(final FTPCmd command, final String pathname, final Path directory,
+                                     final FTPDataResponseReader reader, final ListProgressListener listener) throws IOException, BackgroundException {
+        this.pret(command, pathname);
+
+        final Socket socket = _openDataConnection_(command, pathname);
+
+        final BufferedReader lines = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
+        };
+        final AttributedList<Path> list;
+        try {
+            list = reader.read(directory, lines, listener);
+        }
+        catch(ConnectionCanceledException e) {
+            // Abort transfer and read reply
+            lines.close();
+            socket.close();
+            this.completePendingCommand();
+            throw e;
+        }
+        catch(FTPInvalidListException e) {
+            lines.close();
+            socket.close();
+            if(!this.completePendingCommand()) {
+                throw new FTPException(this.getReplyCode(), this.getReplyString());
+            }
+            throw e;
+        }
+        catch(IOException e) {
+            IOUtils.closeQuietly(lines);
+            IOUtils.closeQuietly(socket);
+            throw e;
+        }
+
+        lines.close();
+        socket.close();
+
+        if(!this.completePendingCommand()) {
+            throw new FTPException(this.getReplyCode(), this.getReplyString());
+        }
+        return list;
+    }
+
     /**
      * Query the server for a supported feature, and returns its values (if any).
      * Caches the parsed response to avoid resending the command repeatedly.
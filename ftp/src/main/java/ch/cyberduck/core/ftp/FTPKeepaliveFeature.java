@@ -0,0 +1,42 @@
+package ch.cyberduck.core.ftp;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Keepalive;
+
+import java.io.IOException;
+
+public class FTPKeepaliveFeature implements Keepalive {
+
+    private final FTPSession session;
+
+    public FTPKeepaliveFeature(final FTPSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public void send() throws BackgroundException {
+        try {
+            if(!session.getClient().sendNoOp()) {
+                throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
+            }
+        }
+        catch(IOException e) {
+            throw new FTPExceptionMappingService().map(e);
+        }
+    }
+}
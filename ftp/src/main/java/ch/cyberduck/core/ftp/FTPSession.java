@@ -37,6 +37,7 @@ import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Home;
+import ch.cyberduck.core.features.Keepalive;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Symlink;
@@ -335,6 +336,9 @@ public class FTPSession extends SSLSession<FTPClient> {
         if(type == DistributionConfiguration.class) {
             return (T) new CustomOriginCloudFrontDistributionConfiguration(host);
         }
+        if(type == Keepalive.class) {
+            return (T) new FTPKeepaliveFeature(this);
+        }
         if(type == Home.class) {
             return (T) new FTPWorkdirService(this);
         }
@@ -0,0 +1,108 @@
+package ch.cyberduck.core.ftp.list;
+
+/*
+ * Copyright (c) 2002-2018 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class AbstractFTPDataResponseReader implements FTPDataResponseReader {
+
+    /**
+     * Number of lines parsed before notifying listener
+     */
+    private final int chunksize;
+
+    protected AbstractFTPDataResponseReader() {
+        this(PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    protected AbstractFTPDataResponseReader(final int chunksize) {
+        this.chunksize = Math.max(1, chunksize);
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        this.preParse(replies);
+        if(!this.parse(directory, replies, children, false)) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader replies, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        final AttributedList<Path> children = new AttributedList<Path>();
+        // Listener for encrypted directory may require the connection busy with the data transfer to decrypt filenames
+        final boolean progress = !directory.getType().contains(Path.Type.encrypted);
+        // At least one entry successfully parsed
+        boolean success = false;
+        boolean first = true;
+        final List<String> lines = new ArrayList<String>(chunksize);
+        String line;
+        do {
+            line = replies.readLine();
+            if(line != null) {
+                lines.add(line);
+            }
+            if(lines.size() == chunksize || null == line && !lines.isEmpty()) {
+                if(first) {
+                    // Header lines are only found in first chunk
+                    this.preParse(lines);
+                    first = false;
+                }
+                success = this.parse(directory, lines, children, success);
+                lines.clear();
+                if(success && progress) {
+                    listener.chunk(directory, children);
+                }
+            }
+        }
+        while(line != null);
+        if(!success) {
+            throw new FTPInvalidListException(children);
+        }
+        return children;
+    }
+
+    /**
+     * Hook to modify the raw lines before parsing
+     *
+     * @param lines Raw lines of first chunk of listing
+     */
+    protected void preParse(final List<String> lines) {
+        //
+    }
+
+    /**
+     * @param directory Parent directory
+     * @param lines     Raw lines
+     * @param children  Parsed entries to add to
+     * @param success   At least one entry successfully parsed before
+     * @return True if at least one entry successfully parsed before or in lines
+     */
+    protected abstract boolean parse(Path directory, List<String> lines, AttributedList<Path> children, boolean success);
+}
@@ -17,11 +17,9 @@ package ch.cyberduck.core.ftp.list;
 
 import ch.cyberduck.core.AbstractPath;
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
-import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
 
 import org.apache.commons.lang3.StringUtils;
@@ -29,12 +27,11 @@ import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.log4j.Logger;
 
-import java.io.IOException;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.List;
 
-public class FTPListResponseReader implements FTPDataResponseReader {
+public class FTPListResponseReader extends AbstractFTPDataResponseReader {
     private static final Logger log = Logger.getLogger(FTPListResponseReader.class);
 
     private final FTPFileEntryParser parser;
@@ -49,16 +46,22 @@ public class FTPListResponseReader implements FTPDataResponseReader {
         this.lenient = lenient;
     }
 
+    public FTPListResponseReader(final FTPFileEntryParser parser, final int chunksize) {
+        super(chunksize);
+        this.parser = parser;
+        this.lenient = false;
+    }
+
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
-            throws IOException, FTPInvalidListException, ConnectionCanceledException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
+    protected void preParse(final List<String> lines) {
         // Call hook for those implementors which need to perform some action upon the list after it has been created
         // from the server stream, but before any clients see the list
-        parser.preParse(replies);
-        for(String line : replies) {
+        parser.preParse(lines);
+    }
+
+    @Override
+    protected boolean parse(final Path directory, final List<String> lines, final AttributedList<Path> children, boolean success) {
+        for(String line : lines) {
             final FTPFile f = parser.parseFTPEntry(line);
             if(null == f) {
                 continue;
@@ -161,9 +164,6 @@ public class FTPListResponseReader implements FTPDataResponseReader {
             }
             children.add(parsed);
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 }
@@ -16,19 +16,16 @@ package ch.cyberduck.core.ftp.list;
      */
 
 import ch.cyberduck.core.AttributedList;
-import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.date.MDTMMillisecondsDateFormatter;
 import ch.cyberduck.core.date.MDTMSecondsDateFormatter;
-import ch.cyberduck.core.exception.ConnectionCanceledException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
-import java.io.IOException;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -38,7 +35,7 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class FTPMlsdListResponseReader implements FTPDataResponseReader {
+public class FTPMlsdListResponseReader extends AbstractFTPDataResponseReader {
     private static final Logger log = Logger.getLogger(FTPMlsdListResponseReader.class);
 
     public FTPMlsdListResponseReader() {
@@ -46,12 +43,8 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
-        throws IOException, FTPInvalidListException, ConnectionCanceledException {
-        final AttributedList<Path> children = new AttributedList<Path>();
-        // At least one entry successfully parsed
-        boolean success = false;
-        for(String line : replies) {
+    protected boolean parse(final Path directory, final List<String> lines, final AttributedList<Path> children, boolean success) {
+        for(String line : lines) {
             final Map<String, Map<String, String>> file = this.parseFacts(line);
             if(null == file) {
                 log.error(String.format("Error parsing line %s", line));
@@ -166,10 +159,7 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                 children.add(parsed);
             }
         }
-        if(!success) {
-            throw new FTPInvalidListException(children);
-        }
-        return children;
+        return success;
     }
 
     /**
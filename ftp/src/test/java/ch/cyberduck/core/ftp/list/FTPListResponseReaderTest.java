@@ -31,6 +31,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -53,6 +56,27 @@ public class FTPListResponseReaderTest {
         );
     }
 
+    @Test
+    public void testReadChunks() throws Exception {
+        final Path path = new Path("/d", EnumSet.of(Path.Type.directory));
+        final StringBuilder lines = new StringBuilder("total 5\n");
+        for(int i = 0; i < 5; i++) {
+            lines.append(String.format("-rw-r--r--   1 user  group  123 Jan  1  2018 f%d\n", i));
+        }
+        final List<Integer> chunks = new ArrayList<Integer>();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), 2)
+                .read(path, new BufferedReader(new StringReader(lines.toString())), new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path folder, final AttributedList<Path> list) {
+                        chunks.add(list.size());
+                    }
+                });
+        assertEquals(5, list.size());
+        assertEquals(Arrays.asList(1, 3, 5), chunks);
+        assertEquals("f0", list.get(0).getName());
+        assertEquals("f4", list.get(4).getName());
+    }
+
     @Test
     public void testParseSymbolicLink() throws Exception {
         final FTPSession s = new FTPSession(new Host(new FTPProtocol(), "localhost"));
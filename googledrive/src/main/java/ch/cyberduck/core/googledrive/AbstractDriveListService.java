@@ -24,6 +24,7 @@ import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -38,6 +39,8 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.text.MessageFormat;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
@@ -114,6 +117,7 @@ public abstract class AbstractDriveListService implements ListService {
                 }
             }
             while(page != null);
+            this.cache(directory, children);
             return children;
         }
         catch(IOException e) {
@@ -121,6 +125,24 @@ public abstract class AbstractDriveListService implements ListService {
         }
     }
 
+    /**
+     * Add identifiers of files in listing to cache of session and remove identifiers of files no longer found.
+     * Uses the most recently modified file for duplicate names.
+     */
+    protected void cache(final Path directory, final AttributedList<Path> children) {
+        session.getFileidCache().retain(directory, children);
+        final Map<String, Long> modified = new HashMap<String, Long>();
+        for(Path child : children) {
+            final String key = new SimplePathPredicate(child).toString();
+            final Long previous = modified.get(key);
+            if(null != previous && previous >= child.attributes().getModificationDate()) {
+                continue;
+            }
+            modified.put(key, child.attributes().getModificationDate());
+            session.getFileidCache().put(child, child.attributes().getVersionId());
+        }
+    }
+
     protected PathAttributes toAttributes(final File f) {
         final PathAttributes attributes = new PathAttributes();
         if(null != f.getExplicitlyTrashed()) {
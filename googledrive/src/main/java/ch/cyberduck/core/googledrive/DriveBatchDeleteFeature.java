@@ -62,6 +62,7 @@ public class DriveBatchDeleteFeature implements Delete {
 
                         @Override
                         public void onSuccess(final Void aVoid, final HttpHeaders responseHeaders) throws IOException {
+                            session.getFileidCache().remove(file);
                             callback.delete(file);
                         }
                     });
@@ -45,6 +45,7 @@ public class DriveCopyFeature implements Copy {
                     .setParents(Collections.singletonList(new DriveFileidProvider(session).getFileid(target.getParent(), new DisabledListProgressListener())))
                 .setName(target.getName()))
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            session.getFileidCache().put(target, copy.getId());
             return new Path(target.getParent(), target.getName(), target.getType(),
                     new PathAttributes(target.attributes()).withVersionId(copy.getId()));
         }
@@ -48,7 +48,8 @@ public class DriveDirectoryFeature implements Directory<Void> {
                     .setParents(Collections.singletonList(new DriveFileidProvider(session).getFileid(folder.getParent(), new DisabledListProgressListener()))));
             final File execute = insert
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
-            return new Path(folder.getParent(), folder.getName(), folder.getType(), new PathAttributes(folder.attributes()));
+            session.getFileidCache().put(folder, execute.getId());
+            return new Path(folder.getParent(), folder.getName(), folder.getType(), new PathAttributes(folder.attributes()).withVersionId(execute.getId()));
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Cannot create folder {0}", e, folder);
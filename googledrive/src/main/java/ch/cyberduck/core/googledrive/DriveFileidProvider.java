@@ -21,6 +21,7 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
@@ -34,6 +35,8 @@ public class DriveFileidProvider implements IdProvider {
 
     private final DriveSession session;
 
+    private Cache<Path> cache = PathCache.empty();
+
     public DriveFileidProvider(final DriveSession session) {
         this.session = session;
     }
@@ -49,7 +52,18 @@ public class DriveFileidProvider implements IdProvider {
         if(file.equals(DriveHomeFinderService.MYDRIVE_FOLDER)) {
             return DriveHomeFinderService.ROOT_FOLDER_ID;
         }
-        final AttributedList<Path> list = new FileidDriveListService(session, this, file).list(file.getParent(), new DisabledListProgressListener());
+        final String cached = session.getFileidCache().get(file);
+        if(StringUtils.isNotBlank(cached)) {
+            return cached;
+        }
+        final AttributedList<Path> list;
+        if(cache.isCached(file.getParent())) {
+            list = cache.get(file.getParent());
+        }
+        else {
+            // Adds identifiers found to cache
+            list = new FileidDriveListService(session, this, file).list(file.getParent(), new DisabledListProgressListener());
+        }
         final Path found = list.filter(new Comparator<Path>() {
             @Override
             public int compare(final Path p1, final Path p2) {
@@ -59,11 +73,13 @@ public class DriveFileidProvider implements IdProvider {
         if(null == found) {
             throw new NotfoundException(file.getAbsolute());
         }
+        session.getFileidCache().put(file, found.attributes().getVersionId());
         return found.attributes().getVersionId();
     }
 
     @Override
     public IdProvider withCache(final Cache<Path> cache) {
+        this.cache = cache;
         return this;
     }
 }
@@ -18,6 +18,7 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Find;
@@ -26,7 +27,7 @@ public class DriveFindFeature implements Find {
 
     private final DriveSession session;
 
-    private Cache<Path> cache;
+    private Cache<Path> cache = PathCache.empty();
 
     public DriveFindFeature(final DriveSession session) {
         this.session = session;
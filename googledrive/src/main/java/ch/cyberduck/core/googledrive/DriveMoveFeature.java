@@ -85,6 +85,9 @@ public class DriveMoveFeature implements Move {
                 .setFields("id, parents")
                 .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
                 .execute();
+            // Identifiers of descendants are unchanged but no longer found at previous path
+            session.getFileidCache().remove(file);
+            session.getFileidCache().put(renamed, fileid);
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new PathAttributes(renamed.attributes()).withVersionId(fileid));
         }
@@ -15,6 +15,7 @@ package ch.cyberduck.core.googledrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -33,4 +34,9 @@ public class DriveSearchListService extends AbstractDriveListService {
         // The contains operator only performs prefix matching for a name.
         return String.format("name contains '%s'", query);
     }
+
+    @Override
+    protected void cache(final Path directory, final AttributedList<Path> children) {
+        // Search results are not children of the directory listed
+    }
 }
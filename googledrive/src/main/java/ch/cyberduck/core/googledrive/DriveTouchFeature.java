@@ -52,6 +52,7 @@ public class DriveTouchFeature implements Touch<Void> {
                     .setParents(Collections.singletonList(new DriveFileidProvider(session).getFileid(file.getParent(), new DisabledListProgressListener()))));
             final File execute = insert.
                 setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            session.getFileidCache().put(file, execute.getId());
             return new Path(file.getParent(), file.getName(), file.getType(),
                     new PathAttributes(file.attributes()).withVersionId(execute.getId()));
         }
@@ -49,12 +49,16 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.protocol.HTTP;
 import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
 
 import java.io.IOException;
 
+import com.google.api.services.drive.model.File;
+
 import static com.google.api.client.json.Json.MEDIA_TYPE;
 
 public class DriveWriteFeature extends AbstractHttpWriteFeature<Void> implements Write<Void> {
+    private static final Logger log = Logger.getLogger(DriveWriteFeature.class);
 
     private final DriveSession session;
     private final Find finder;
@@ -145,6 +149,17 @@ public class DriveWriteFeature extends AbstractHttpWriteFeature<Void> implements
                                 switch(putResponse.getStatusLine().getStatusCode()) {
                                     case HttpStatus.SC_OK:
                                     case HttpStatus.SC_CREATED:
+                                        if(null != putResponse.getEntity()) {
+                                            // Reply with file resource created
+                                            try {
+                                                final File created = session.getClient().getJsonFactory().fromInputStream(
+                                                    putResponse.getEntity().getContent(), File.class);
+                                                session.getFileidCache().put(file, created.getId());
+                                            }
+                                            catch(IOException | IllegalArgumentException e) {
+                                                log.warn(String.format("Failure parsing reply for upload of %s. %s", file, e.getMessage()));
+                                            }
+                                        }
                                         break;
                                     default:
                                         throw new DriveExceptionMappingService().map(new HttpResponseException(
@@ -29,6 +29,7 @@ import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -69,9 +70,10 @@ public class OneDriveWriteFeature implements Write<Void> {
     public HttpResponseOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
             final OneDriveUploadSession upload = session.toFile(file).createUploadSession();
-            final ChunkedOutputStream proxy = new ChunkedOutputStream(upload, file, new TransferStatus(status));
+            final SegmentBufferPool buffers = SegmentBufferPool.get(preferences.getInteger("onedrive.upload.multipart.partsize.minimum"));
+            final ChunkedOutputStream proxy = new ChunkedOutputStream(upload, file, new TransferStatus(status), buffers);
             return new HttpResponseOutputStream<Void>(new MemorySegementingOutputStream(proxy,
-                preferences.getInteger("onedrive.upload.multipart.partsize.minimum"))) {
+                buffers.getSize(), buffers)) {
                 @Override
                 public Void getStatus() throws BackgroundException {
                     return null;
@@ -115,13 +117,15 @@ public class OneDriveWriteFeature implements Write<Void> {
         private final Path file;
         private final TransferStatus status;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final SegmentBufferPool buffers;
 
         private Long offset = 0L;
 
-        public ChunkedOutputStream(final OneDriveUploadSession upload, final Path file, final TransferStatus status) {
+        public ChunkedOutputStream(final OneDriveUploadSession upload, final Path file, final TransferStatus status, final SegmentBufferPool buffers) {
             this.upload = upload;
             this.file = file;
             this.status = status;
+            this.buffers = buffers;
         }
 
         @Override
@@ -131,22 +135,28 @@ public class OneDriveWriteFeature implements Write<Void> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            final byte[] content = Arrays.copyOfRange(b, off, len);
-            final HttpRange range = HttpRange.byLength(offset, content.length);
-            final String header;
-            if(status.getLength() == -1L) {
-                header = String.format("%d-%d/*", range.getStart(), range.getEnd());
-            }
-            else {
-                header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), status.getOffset() + status.getLength());
-            }
-            if(upload.uploadFragment(header, content) instanceof OneDriveFile.Metadata) {
-                log.info(String.format("Completed upload for %s", file));
+            try {
+                // Only copy trailing fragment not filling the whole segment
+                final byte[] content = 0 == off && b.length == len ? b : Arrays.copyOfRange(b, off, off + len);
+                final HttpRange range = HttpRange.byLength(offset, content.length);
+                final String header;
+                if(status.getLength() == -1L) {
+                    header = String.format("%d-%d/*", range.getStart(), range.getEnd());
+                }
+                else {
+                    header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), status.getOffset() + status.getLength());
+                }
+                if(upload.uploadFragment(header, content) instanceof OneDriveFile.Metadata) {
+                    log.info(String.format("Completed upload for %s", file));
+                }
+                else {
+                    log.debug(String.format("Uploaded fragment %s for file %s", header, file));
+                }
+                offset += content.length;
             }
-            else {
-                log.debug(String.format("Uploaded fragment %s for file %s", header, file));
+            finally {
+                buffers.release(b);
             }
-            offset += content.length;
         }
 
         @Override
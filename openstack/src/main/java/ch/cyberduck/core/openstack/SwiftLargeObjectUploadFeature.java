@@ -30,14 +30,16 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.StreamingChecksum;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.DefaultThreadPool;
-import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.SegmentScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -45,7 +47,10 @@ import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -55,7 +60,7 @@ import java.util.concurrent.Future;
 import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.StorageObject;
 
-public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObject, MessageDigest> {
+public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObject, MessageDigest> implements StreamingChecksum {
     private static final Logger log = Logger.getLogger(SwiftLargeObjectUploadFeature.class);
 
     private final SwiftSession session;
@@ -72,6 +77,12 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
 
     private Write<StorageObject> writer;
 
+    /**
+     * Verify checksum computed while uploading instead of sending it with the request
+     */
+    private final boolean streaming = PreferencesFactory.get().getBoolean("openstack.upload.md5")
+            && PreferencesFactory.get().getBoolean("openstack.upload.checksum.stream");
+
     public SwiftLargeObjectUploadFeature(final SwiftSession session, final SwiftRegionService regionService, final Write<StorageObject> writer,
                                          final Long segmentSize, final Integer concurrency) {
         this(session, regionService, new SwiftObjectListService(session, regionService), new SwiftSegmentService(session, regionService), writer,
@@ -100,7 +111,7 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
                                 final StreamListener listener,
                                 final TransferStatus status,
                                 final ConnectionCallback callback) throws BackgroundException {
-        final DefaultThreadPool pool = new DefaultThreadPool("multipart", concurrency);
+        final SegmentScheduler.SegmentThreadPool pool = SegmentScheduler.get(session.getHost()).pool(concurrency);
         final List<Path> existingSegments = new ArrayList<Path>();
         if(status.isAppend() || status.isRetry()) {
             // Get a lexicographically ordered list of the existing file segments
@@ -194,7 +205,7 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
         }
     }
 
-    private Future<StorageObject> submit(final ThreadPool pool, final Path segment, final Local local,
+    private Future<StorageObject> submit(final SegmentScheduler.SegmentThreadPool pool, final Path segment, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final Long offset, final Long length, final ConnectionCallback callback) {
         return pool.execute(new DefaultRetryCallable<StorageObject>(new BackgroundExceptionCallable<StorageObject>() {
@@ -208,8 +219,10 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
                         .skip(offset);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                status.setChecksum(writer.checksum(segment).compute(
-                        StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status));
+                if(!isStreaming(segment, status)) {
+                    status.setChecksum(writer.checksum(segment).compute(
+                            StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status));
+                }
                 status.setSegment(true);
                 return SwiftLargeObjectUploadFeature.super.upload(
                         segment, local, throttle, listener, status, overall, new StreamProgress() {
@@ -226,7 +239,44 @@ public class SwiftLargeObjectUploadFeature extends HttpUploadFeature<StorageObje
                             }
                         }, callback);
             }
-        }, overall));
+        }, overall), length);
+    }
+
+    @Override
+    public boolean isStreaming(final Path file, final TransferStatus status) {
+        return streaming;
+    }
+
+    @Override
+    protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
+        if(null == digest) {
+            return super.decorate(in, null);
+        }
+        else {
+            return new DigestInputStream(super.decorate(in, digest), digest);
+        }
+    }
+
+    /**
+     * @return Digest to verify segment with checksum returned when not sent in advance
+     */
+    @Override
+    protected MessageDigest digest() throws IOException {
+        MessageDigest digest = null;
+        if(streaming) {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            }
+            catch(NoSuchAlgorithmException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return digest;
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final StorageObject response) throws BackgroundException {
+        this.verify(file, digest, Checksum.parse(response.getMd5sum()));
     }
 
     @Override
@@ -30,6 +30,7 @@ import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
@@ -91,9 +92,10 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
 
     @Override
     public HttpResponseOutputStream<List<StorageObject>> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status);
+        final SegmentBufferPool buffers = SegmentBufferPool.get(PreferencesFactory.get().getInteger("openstack.upload.largeobject.size.minimum"));
+        final LargeUploadOutputStream proxy = new LargeUploadOutputStream(file, status, buffers);
         return new HttpResponseOutputStream<List<StorageObject>>(new MemorySegementingOutputStream(proxy,
-                PreferencesFactory.get().getInteger("openstack.upload.largeobject.size.minimum"))) {
+                buffers.getSize(), buffers)) {
             @Override
             public List<StorageObject> getStatus() throws BackgroundException {
                 return proxy.getCompleted();
@@ -130,11 +132,13 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final SegmentBufferPool buffers;
         private int segmentNumber;
 
-        public LargeUploadOutputStream(final Path file, final TransferStatus status) {
+        public LargeUploadOutputStream(final Path file, final TransferStatus status, final SegmentBufferPool buffers) {
             this.file = file;
             this.overall = status;
+            this.buffers = buffers;
         }
 
         @Override
@@ -182,6 +186,9 @@ public class SwiftLargeUploadWriteFeature implements MultipartWrite<List<Storage
             catch(BackgroundException e) {
                 throw new IOException(e.getMessage(), e);
             }
+            finally {
+                buffers.release(content);
+            }
         }
 
         @Override
@@ -28,6 +28,7 @@ import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.StreamCancelation;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.StreamingChecksum;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -41,11 +42,17 @@ import java.security.NoSuchAlgorithmException;
 
 import ch.iterate.openstack.swift.model.StorageObject;
 
-public class SwiftSmallObjectUploadFeature extends HttpUploadFeature<StorageObject, MessageDigest> {
+public class SwiftSmallObjectUploadFeature extends HttpUploadFeature<StorageObject, MessageDigest> implements StreamingChecksum {
     private static final Logger log = Logger.getLogger(SwiftSmallObjectUploadFeature.class);
 
     private final Write<StorageObject> writer;
 
+    /**
+     * Verify checksum computed while uploading instead of sending it with the request
+     */
+    private final boolean streaming = PreferencesFactory.get().getBoolean("openstack.upload.md5")
+            && PreferencesFactory.get().getBoolean("openstack.upload.checksum.stream");
+
     public SwiftSmallObjectUploadFeature(final Write<StorageObject> writer) {
         super(writer);
         this.writer = writer;
@@ -54,11 +61,18 @@ public class SwiftSmallObjectUploadFeature extends HttpUploadFeature<StorageObje
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener, final TransferStatus status, final StreamCancelation cancel, final StreamProgress progress, final ConnectionCallback callback) throws BackgroundException {
         if(Checksum.NONE == status.getChecksum()) {
-            status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+            if(!this.isStreaming(file, status)) {
+                status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
+            }
         }
         return super.upload(file, local, throttle, listener, status, cancel, progress, callback);
     }
 
+    @Override
+    public boolean isStreaming(final Path file, final TransferStatus status) {
+        return streaming;
+    }
+
     @Override
     protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
         if(null == digest) {
@@ -27,6 +27,7 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.StreamingChecksum;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -38,7 +39,7 @@ import java.util.List;
 
 import ch.iterate.openstack.swift.model.StorageObject;
 
-public class SwiftThresholdUploadService implements Upload<StorageObject> {
+public class SwiftThresholdUploadService implements Upload<StorageObject>, StreamingChecksum {
     private static final Logger log = Logger.getLogger(SwiftThresholdUploadService.class);
 
     private final SwiftSession session;
@@ -105,6 +106,12 @@ public class SwiftThresholdUploadService implements Upload<StorageObject> {
         return checksum;
     }
 
+    @Override
+    public boolean isStreaming(final Path file, final TransferStatus status) {
+        return preferences.getBoolean("openstack.upload.md5")
+                && preferences.getBoolean("openstack.upload.checksum.stream");
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
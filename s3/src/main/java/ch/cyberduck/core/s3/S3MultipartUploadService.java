@@ -31,16 +31,17 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.MD5ChecksumCompute;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.kms.KMSEncryptionFeature;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.DefaultThreadPool;
-import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.SegmentScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.io.input.BoundedInputStream;
@@ -53,7 +54,11 @@ import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -101,7 +106,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final DefaultThreadPool pool = new DefaultThreadPool("multipart", concurrency);
+        final SegmentScheduler.SegmentThreadPool pool = SegmentScheduler.get(session.getHost()).pool(concurrency);
         try {
             MultipartUpload multipart = null;
             try {
@@ -237,7 +242,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }
     }
 
-    private Future<MultipartPart> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<MultipartPart> submit(final SegmentScheduler.SegmentThreadPool pool, final Path file, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final MultipartUpload multipart,
                                          final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws BackgroundException {
@@ -261,6 +266,10 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setNonces(overall.getNonces());
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
+                        if(session.isUnsignedPayload(overall.getEncryption())) {
+                            // Verified with MD5 hash computed while uploading
+                            break;
+                        }
                         status.setChecksum(writer.checksum(file)
                                 .compute(StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset), status)
                         );
@@ -291,7 +300,43 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         part.getContentLength());
 
             }
-        }, overall));
+        }, overall), length);
+    }
+
+    @Override
+    protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
+        if(null == digest) {
+            return super.decorate(in, null);
+        }
+        else {
+            return new DigestInputStream(super.decorate(in, digest), digest);
+        }
+    }
+
+    /**
+     * @return Digest to verify part with ETag returned when payload is not signed
+     */
+    @Override
+    protected MessageDigest digest() throws IOException {
+        MessageDigest digest = null;
+        if(session.isUnsignedPayload()) {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            }
+            catch(NoSuchAlgorithmException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return digest;
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final StorageObject part) throws BackgroundException {
+        if(KMSEncryptionFeature.SSE_KMS_DEFAULT.algorithm.equals(part.getServerSideEncryptionAlgorithm())) {
+            log.warn(String.format("Skip checksum verification for part of %s with SSE-KMS enabled", file));
+            return;
+        }
+        this.verify(file, digest, Checksum.parse(part.getETag()));
     }
 
     @Override
@@ -8,6 +8,7 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
@@ -19,12 +20,14 @@ import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.MD5ChecksumCompute;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.SegmentBufferPool;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.SegmentScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -45,6 +48,11 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPart>> {
@@ -60,14 +68,24 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
     private final Find finder;
     private final AttributesFinder attributes;
 
+    /**
+     * Maximum number of parts uploaded concurrently while the next part is buffered
+     */
+    private final Integer concurrency;
+
     public S3MultipartWriteFeature(final S3Session session) {
         this(session, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session));
     }
 
     public S3MultipartWriteFeature(final S3Session session, final Find finder, final AttributesFinder attributes) {
+        this(session, finder, attributes, PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
+    }
+
+    public S3MultipartWriteFeature(final S3Session session, final Find finder, final AttributesFinder attributes, final Integer concurrency) {
         this.session = session;
         this.finder = finder;
         this.attributes = attributes;
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -87,9 +105,10 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
         }
-        final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status);
+        final SegmentBufferPool buffers = SegmentBufferPool.get(preferences.getInteger("s3.upload.multipart.partsize.minimum"));
+        final MultipartOutputStream proxy = new MultipartOutputStream(multipart, file, status, buffers);
         return new HttpResponseOutputStream<List<MultipartPart>>(new MemorySegementingOutputStream(proxy,
-            preferences.getInteger("s3.upload.multipart.partsize.minimum"))) {
+            buffers.getSize(), buffers)) {
             @Override
             public List<MultipartPart> getStatus() throws BackgroundException {
                 return proxy.getCompleted();
@@ -123,16 +142,31 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
         private final List<MultipartPart> completed
             = new ArrayList<MultipartPart>();
 
+        /**
+         * Parts submitted for upload in order of part number
+         */
+        private final List<Part> parts
+            = new ArrayList<Part>();
+
         private final MultipartUpload multipart;
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
+        private final SegmentScheduler.SegmentThreadPool pool;
+        /**
+         * Limit number of parts buffered in memory waiting for upload
+         */
+        private final Semaphore inflight;
+        private final SegmentBufferPool buffers;
         private int partNumber;
 
-        public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status) {
+        public MultipartOutputStream(final MultipartUpload multipart, final Path file, final TransferStatus status, final SegmentBufferPool buffers) {
             this.multipart = multipart;
             this.file = file;
             this.overall = status;
+            this.buffers = buffers;
+            this.pool = SegmentScheduler.get(session.getHost()).pool(concurrency);
+            this.inflight = new Semaphore(concurrency);
         }
 
         public List<MultipartPart> getCompleted() {
@@ -144,46 +178,159 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
             throw new IOException(new UnsupportedOperationException());
         }
 
+        /**
+         * Submit part for upload in background. Blocks when the maximum number of parts are pending.
+         *
+         * @param content Part data not modified by caller after handoff. Released to pool when part upload is done.
+         */
         @Override
         public void write(final byte[] content, final int off, final int len) throws IOException {
+            // Fail fast on previous part failure
+            this.check();
             try {
-                completed.add(new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
-                    @Override
-                    public MultipartPart call() throws BackgroundException {
-                        final Map<String, String> parameters = new HashMap<String, String>();
-                        parameters.put("uploadId", multipart.getUploadId());
-                        parameters.put("partNumber", String.valueOf(++partNumber));
-                        final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
-                        switch(session.getSignatureVersion()) {
-                            case AWS4HMACSHA256:
-                                status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
-                                    .compute(new ByteArrayInputStream(content, off, len), status)
-                                );
-                                break;
-                        }
-                        status.setSegment(true);
-                        final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
-                            .getDetails(file, status);
-                        try {
-                            session.getClient().putObjectWithRequestEntityImpl(
-                                containerService.getContainer(file).getName(), part,
-                                new ByteArrayEntity(content, off, len), parameters);
-                        }
-                        catch(ServiceException e) {
-                            throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Saved object %s with checksum %s", file, part.getETag()));
+                // Back pressure when maximum number of parts in memory is reached
+                inflight.acquire();
+            }
+            catch(InterruptedException e) {
+                overall.setCanceled();
+                throw new IOException(e.getMessage(), new ConnectionCanceledException(e));
+            }
+            final int number = ++partNumber;
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Submit part %d of %s to queue with length %d", number, file, len));
+            }
+            final Part part = new Part(number, content, off, len);
+            try {
+                part.future = pool.execute(part, len);
+                parts.add(part);
+            }
+            catch(RejectedExecutionException e) {
+                part.release();
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Part upload holding a buffer and a permit. Both are released exactly once, either when the upload
+         * is done or when the part is cancelled before it was started.
+         */
+        private final class Part implements Callable<MultipartPart> {
+            private final int number;
+            private final byte[] content;
+            private final int off;
+            private final int len;
+            /**
+             * Set when the upload is started or the part is discarded
+             */
+            private final AtomicBoolean claimed = new AtomicBoolean();
+
+            private Future<MultipartPart> future;
+
+            public Part(final int number, final byte[] content, final int off, final int len) {
+                this.number = number;
+                this.content = content;
+                this.off = off;
+                this.len = len;
+            }
+
+            @Override
+            public MultipartPart call() throws BackgroundException {
+                if(!claimed.compareAndSet(false, true)) {
+                    // Discarded before started
+                    throw new ConnectionCanceledException();
+                }
+                try {
+                    return new DefaultRetryCallable<MultipartPart>(new BackgroundExceptionCallable<MultipartPart>() {
+                        @Override
+                        public MultipartPart call() throws BackgroundException {
+                            if(overall.isCanceled()) {
+                                throw new ConnectionCanceledException();
+                            }
+                            return upload(number, content, off, len);
                         }
-                        return new MultipartPart(partNumber,
-                            null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
-                            null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
-                            part.getContentLength());
+                    }, overall).call();
+                }
+                finally {
+                    this.release();
+                }
+            }
+
+            /**
+             * Release buffer and permit of part not started
+             */
+            public void discard() {
+                if(claimed.compareAndSet(false, true)) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Discard part %d of %s not started", number, file));
                     }
-                }, overall).call());
+                    this.release();
+                }
             }
-            catch(BackgroundException e) {
-                throw new IOException(e.getMessage(), e);
+
+            private void release() {
+                buffers.release(content);
+                inflight.release();
+            }
+        }
+
+        private MultipartPart upload(final int number, final byte[] content, final int off, final int len) throws BackgroundException {
+            final Map<String, String> parameters = new HashMap<String, String>();
+            parameters.put("uploadId", multipart.getUploadId());
+            parameters.put("partNumber", String.valueOf(number));
+            final TransferStatus status = new TransferStatus().withParameters(parameters).length(len);
+            switch(session.getSignatureVersion()) {
+                case AWS4HMACSHA256:
+                    status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.sha256)
+                        .compute(new ByteArrayInputStream(content, off, len), status)
+                    );
+                    break;
+            }
+            status.setSegment(true);
+            final S3Object part = new S3WriteFeature(session, new S3DisabledMultipartService())
+                .getDetails(file, status);
+            try {
+                session.getClient().putObjectWithRequestEntityImpl(
+                    containerService.getContainer(file).getName(), part,
+                    new ByteArrayEntity(content, off, len), parameters);
+            }
+            catch(ServiceException e) {
+                throw new S3ExceptionMappingService().map("Upload {0} failed", e, file);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Saved part %d of object %s with checksum %s", number, file, part.getETag()));
+            }
+            return new MultipartPart(number,
+                null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
+                null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
+                part.getContentLength());
+        }
+
+        /**
+         * Rethrow failure of any part upload already finished
+         */
+        private void check() throws IOException {
+            for(Part part : parts) {
+                if(part.future.isDone()) {
+                    this.await(part.future);
+                }
+            }
+        }
+
+        private MultipartPart await(final Future<MultipartPart> future) throws IOException {
+            try {
+                return future.get();
+            }
+            catch(InterruptedException e) {
+                log.error("Part upload failed with interrupt failure");
+                overall.setCanceled();
+                throw new IOException(e.getMessage(), new ConnectionCanceledException(e));
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw new IOException(e.getCause().getMessage(), e.getCause());
+                }
+                throw new IOException(e.getCause().getMessage(), new BackgroundException(e.getCause()));
             }
         }
 
@@ -194,6 +341,10 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
                     log.warn(String.format("Skip double close of stream %s", this));
                     return;
                 }
+                // Wait for pending part uploads
+                for(Part part : parts) {
+                    completed.add(this.await(part.future));
+                }
                 if(completed.isEmpty()) {
                     log.warn(String.format("Abort multipart upload %s with no completed parts", multipart));
                     session.getClient().multipartAbortUpload(multipart);
@@ -242,6 +393,12 @@ public class S3MultipartWriteFeature implements MultipartWrite<List<MultipartPar
                 throw new IOException(e.getErrorMessage(), new S3ExceptionMappingService().map(e));
             }
             finally {
+                // Cancel future tasks
+                pool.shutdown(false);
+                // Parts cancelled before started never run their cleanup
+                for(Part part : parts) {
+                    part.discard();
+                }
                 close.set(true);
             }
         }
@@ -28,8 +28,11 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -37,7 +40,13 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class S3ObjectListService implements ListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
@@ -62,6 +71,14 @@ public class S3ObjectListService implements ListService {
     }
 
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+        if(null == delimiter) {
+            final int concurrency = preferences.getInteger("s3.listing.concurrency");
+            final int depth = preferences.getInteger("s3.listing.partition.depth");
+            if(concurrency > 1 && depth > 0) {
+                return this.list(directory, listener, chunksize, concurrency, depth,
+                        preferences.getInteger("s3.listing.partition.max"));
+            }
+        }
         try {
             final String prefix = this.createPrefix(directory);
             // If this optional, Unicode string parameter is included with your request,
@@ -82,47 +99,18 @@ public class S3ObjectListService implements ListService {
 
                 final StorageObject[] objects = chunk.getObjects();
                 for(StorageObject object : objects) {
-                    final String key = PathNormalizer.normalize(object.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(key)) {
-                        log.warn(String.format("Skipping prefix %s", key));
+                    final Path file = this.toPath(bucket, directory, delimiter, object);
+                    if(null == file) {
                         continue;
                     }
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                            ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path file;
-                    final PathAttributes attributes = this.attributes.convert(object);
-                    // Copy bucket location
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), types, attributes);
-                    }
                     children.add(file);
                 }
                 final String[] prefixes = chunk.getCommonPrefixes();
                 for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
-                    final String key = PathNormalizer.normalize(common);
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                    final Path file = this.toPath(bucket, directory, delimiter, common);
+                    if(null == file) {
                         continue;
                     }
-                    final Path file;
-                    final PathAttributes attributes = new PathAttributes();
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    attributes.setRegion(bucket.attributes().getRegion());
                     children.add(file);
                 }
                 priorLastKey = chunk.getPriorLastKey();
@@ -136,6 +124,120 @@ public class S3ObjectListService implements ListService {
         }
     }
 
+    /**
+     * Recursive listing of all keys with the prefix of the directory. The keyspace is partitioned by the common
+     * prefixes found when listing with a delimiter in the first levels. Partitions are listed concurrently and
+     * merged in key order on the calling thread, notifying the listener whenever waiting for a partition.
+     *
+     * @param concurrency Number of concurrent list requests
+     * @param depth       Number of levels listed with delimiter to find partitions
+     * @param max         Maximum number of partitions. Further common prefixes are listed without delimiter in the
+     *                    partition they are found in.
+     * @return Same result as listing without delimiter
+     */
+    protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final int chunksize,
+                                        final int concurrency, final int depth, final int max) throws BackgroundException {
+        final Path bucket = containerService.getContainer(directory);
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        try {
+            final List<Entry> entries;
+            try {
+                // First level listed on calling thread
+                entries = new Partition(pool, new AtomicInteger(max), bucket, directory, this.createPrefix(directory), chunksize, depth).call();
+            }
+            catch(ServiceException e) {
+                throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            }
+            final AttributedList<Path> children = new AttributedList<Path>();
+            this.merge(directory, entries, children, listener);
+            listener.chunk(directory, children);
+            return children;
+        }
+        finally {
+            // Cancel pending partitions when interrupted by failure or listener
+            pool.shutdown(false);
+        }
+    }
+
+    private void merge(final Path directory, final List<Entry> entries, final AttributedList<Path> children,
+                       final ListProgressListener listener) throws BackgroundException {
+        for(Entry entry : entries) {
+            if(null == entry.partition) {
+                children.add(entry.file);
+            }
+            else {
+                if(!entry.partition.isDone()) {
+                    // Notify with results so far before blocking
+                    listener.chunk(directory, children);
+                }
+                this.merge(directory, this.await(directory, entry.partition), children, listener);
+            }
+        }
+    }
+
+    private List<Entry> await(final Path directory, final Future<List<Entry>> partition) throws BackgroundException {
+        try {
+            return partition.get();
+        }
+        catch(InterruptedException e) {
+            log.error(String.format("Listing %s failed with interrupt failure", directory));
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Listing %s failed with execution failure %s", directory, e.getMessage()));
+            if(e.getCause() instanceof ServiceException) {
+                throw new S3ExceptionMappingService().map("Listing directory {0} failed", (ServiceException) e.getCause(), directory);
+            }
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    /**
+     * @return Null if object is skipped
+     */
+    private Path toPath(final Path bucket, final Path directory, final String delimiter, final StorageObject object) {
+        final String key = PathNormalizer.normalize(object.getKey());
+        if(String.valueOf(Path.DELIMITER).equals(key)) {
+            log.warn(String.format("Skipping prefix %s", key));
+            return null;
+        }
+        if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+            return null;
+        }
+        final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+                ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+        final PathAttributes attributes = this.attributes.convert(object);
+        // Copy bucket location
+        attributes.setRegion(bucket.attributes().getRegion());
+        if(null == delimiter) {
+            return new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
+        }
+        return new Path(directory, PathNormalizer.name(key), types, attributes);
+    }
+
+    /**
+     * @return Null if common prefix is skipped
+     */
+    private Path toPath(final Path bucket, final Path directory, final String delimiter, final String common) {
+        if(String.valueOf(Path.DELIMITER).equals(common)) {
+            log.warn(String.format("Skipping prefix %s", common));
+            return null;
+        }
+        final String key = PathNormalizer.normalize(common);
+        if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+            return null;
+        }
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setRegion(bucket.attributes().getRegion());
+        if(null == delimiter) {
+            return new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+        }
+        return new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+    }
+
     protected String createPrefix(final Path directory) {
         // Keys can be listed by prefix. By choosing a common prefix
         // for the names of related keys and marking these keys with
@@ -154,4 +256,99 @@ public class S3ObjectListService implements ListService {
         }
         return prefix;
     }
+
+    /**
+     * Lists keys with prefix. Common prefixes are submitted as partitions to the pool until the maximum depth
+     * is reached where the remaining keys are listed without delimiter.
+     */
+    private final class Partition implements Callable<List<Entry>> {
+        private final ThreadPool pool;
+        /**
+         * Number of partitions left to submit shared by all partitions of listing
+         */
+        private final AtomicInteger remaining;
+        private final Path bucket;
+        private final Path directory;
+        private final String prefix;
+        private final int chunksize;
+        /**
+         * Remaining levels to list with delimiter
+         */
+        private final int depth;
+
+        public Partition(final ThreadPool pool, final AtomicInteger remaining, final Path bucket, final Path directory,
+                         final String prefix, final int chunksize, final int depth) {
+            this.pool = pool;
+            this.remaining = remaining;
+            this.bucket = bucket;
+            this.directory = directory;
+            this.prefix = prefix;
+            this.chunksize = chunksize;
+            this.depth = depth;
+        }
+
+        @Override
+        public List<Entry> call() throws ServiceException {
+            final String delimiter = depth > 0 ? String.valueOf(Path.DELIMITER) : null;
+            final List<Entry> entries = new ArrayList<Entry>();
+            String priorLastKey = null;
+            do {
+                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                        PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
+                        chunksize, priorLastKey);
+                final StorageObject[] objects = chunk.getObjects();
+                final String[] prefixes = chunk.getCommonPrefixes();
+                // Both are in lexicographic order. Merge to keep order of listing without delimiter.
+                int i = 0;
+                int j = 0;
+                while(i < objects.length || j < prefixes.length) {
+                    if(j == prefixes.length || i < objects.length && objects[i].getKey().compareTo(prefixes[j]) < 0) {
+                        // Includes placeholder object of prefix itself as returned when listing without delimiter
+                        final Path file = toPath(bucket, directory, null, objects[i++]);
+                        if(null == file) {
+                            continue;
+                        }
+                        entries.add(new Entry(file));
+                    }
+                    else {
+                        final String common = prefixes[j++];
+                        if(String.valueOf(Path.DELIMITER).equals(common)) {
+                            log.warn(String.format("Skipping prefix %s", common));
+                            continue;
+                        }
+                        if(remaining.getAndDecrement() <= 0) {
+                            // Limit of partitions reached
+                            entries.addAll(new Partition(pool, remaining, bucket, directory, common, chunksize, 0).call());
+                            continue;
+                        }
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Submit partition %s of %s", common, directory));
+                        }
+                        entries.add(new Entry(pool.execute(new Partition(pool, remaining, bucket, directory, common, chunksize, depth - 1))));
+                    }
+                }
+                priorLastKey = chunk.getPriorLastKey();
+            }
+            while(priorLastKey != null);
+            return entries;
+        }
+    }
+
+    /**
+     * Object found or pending listing of common prefix
+     */
+    private static final class Entry {
+        private final Path file;
+        private final Future<List<Entry>> partition;
+
+        public Entry(final Path file) {
+            this.file = file;
+            this.partition = null;
+        }
+
+        public Entry(final Future<List<Entry>> partition) {
+            this.file = null;
+            this.partition = partition;
+        }
+    }
 }
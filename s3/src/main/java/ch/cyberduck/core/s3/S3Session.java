@@ -140,6 +140,27 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         this.authenticationHeaderSignatureVersion = authenticationHeaderSignatureVersion;
     }
 
+    /**
+     * @return True if the payload of uploads is sent unsigned and verified with the MD5 hash computed while uploading
+     */
+    public boolean isUnsignedPayload() {
+        return preferences.getBoolean("s3.upload.checksum.stream")
+                && preferences.getBoolean("s3.upload.md5")
+                && host.getProtocol().isSecure();
+    }
+
+    /**
+     * @param encryption Server side encryption of uploaded object
+     * @return True if the payload is sent unsigned and the ETag returned is the MD5 hash of the content
+     */
+    public boolean isUnsignedPayload(final Encryption.Algorithm encryption) {
+        if(!this.isUnsignedPayload()) {
+            return false;
+        }
+        // ETag is not the MD5 hash of the content for objects encrypted with SSE-KMS
+        return !KMSEncryptionFeature.SSE_KMS_DEFAULT.algorithm.equals(encryption.algorithm);
+    }
+
     /**
      * @return header prefix for general Google Storage headers: x-goog-.
      */
@@ -28,6 +28,7 @@ import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.kms.KMSEncryptionFeature;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -59,6 +60,10 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
         switch(signatureVersion) {
             case AWS4HMACSHA256:
                 if(Checksum.NONE == status.getChecksum()) {
+                    if(session.isUnsignedPayload(status.getEncryption())) {
+                        // Verified with MD5 hash computed while uploading
+                        break;
+                    }
                     status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
                 }
                 break;
@@ -103,8 +108,8 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
 
     @Override
     protected void post(final Path file, final MessageDigest digest, final StorageObject part) throws BackgroundException {
-        if(null != part.getServerSideEncryptionAlgorithm()) {
-            log.warn(String.format("Skip checksum verification for %s with server side encryption enabled", file));
+        if(KMSEncryptionFeature.SSE_KMS_DEFAULT.algorithm.equals(part.getServerSideEncryptionAlgorithm())) {
+            log.warn(String.format("Skip checksum verification for %s with SSE-KMS enabled", file));
             return;
         }
         this.verify(file, digest, Checksum.parse(part.getETag()));
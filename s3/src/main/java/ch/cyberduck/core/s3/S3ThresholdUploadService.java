@@ -29,6 +29,7 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.StreamingChecksum;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -36,7 +37,7 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.log4j.Logger;
 import org.jets3t.service.model.StorageObject;
 
-public class S3ThresholdUploadService implements Upload<StorageObject> {
+public class S3ThresholdUploadService implements Upload<StorageObject>, StreamingChecksum {
     private static final Logger log = Logger.getLogger(S3ThresholdUploadService.class);
 
     private final Preferences preferences
@@ -87,6 +88,11 @@ public class S3ThresholdUploadService implements Upload<StorageObject> {
         return new S3SingleUploadService(session, writer).upload(file, local, throttle, listener, status, prompt);
     }
 
+    @Override
+    public boolean isStreaming(final Path file, final TransferStatus status) {
+        return session.isUnsignedPayload(status.getEncryption());
+    }
+
     public S3ThresholdUploadService withMultipartThreshold(final Long threshold) {
         this.multipartThreshold = threshold;
         return this;
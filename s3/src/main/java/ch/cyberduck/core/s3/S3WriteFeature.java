@@ -134,6 +134,16 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
                     break;
             }
         }
+        else {
+            switch(session.getSignatureVersion()) {
+                case AWS4HMACSHA256:
+                    if(session.isUnsignedPayload(status.getEncryption())) {
+                        // Payload not known in advance
+                        object.addMetadata("x-amz-content-sha256", "UNSIGNED-PAYLOAD");
+                    }
+                    break;
+            }
+        }
         if(StringUtils.isNotBlank(status.getStorageClass())) {
             if(!S3Object.STORAGE_CLASS_STANDARD.equals(status.getStorageClass())) {
                 // The default setting is STANDARD.
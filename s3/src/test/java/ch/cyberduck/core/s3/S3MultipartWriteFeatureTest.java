@@ -12,6 +12,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -67,6 +68,46 @@ public class S3MultipartWriteFeatureTest {
         session.close();
     }
 
+    @Test
+    public void testWriteConcurrentParts() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final S3MultipartWriteFeature feature = new S3MultipartWriteFeature(session,
+                new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session), 3);
+        final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.volume));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(-1L);
+        final Path file = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final HttpResponseOutputStream<List<MultipartPart>> out = feature.write(file, status, new DisabledConnectionCallback());
+        // More parts than allowed to upload concurrently
+        final byte[] content = RandomUtils.nextBytes(5 * 5 * 1024 * 1024 + 1);
+        final ByteArrayInputStream in = new ByteArrayInputStream(content);
+        final TransferStatus progress = new TransferStatus();
+        new StreamCopier(new TransferStatus(), progress).transfer(in, out);
+        assertEquals(content.length, progress.getOffset());
+        in.close();
+        out.close();
+        final List<MultipartPart> parts = out.getStatus();
+        assertEquals(6, parts.size());
+        for(int i = 0; i < parts.size(); i++) {
+            // Completed in order of part number regardless of upload order
+            assertEquals(i + 1, parts.get(i).getPartNumber().intValue());
+        }
+        assertEquals(1L, parts.get(5).getSize().longValue());
+        final byte[] compare = new byte[content.length];
+        final InputStream stream = new S3ReadFeature(session).read(file, new TransferStatus().length(content.length), new DisabledConnectionCallback());
+        IOUtils.readFully(stream, compare);
+        stream.close();
+        assertArrayEquals(content, compare);
+        new S3DefaultDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testWriteZeroLength() throws Exception {
         final S3Session session = new S3Session(
@@ -45,6 +45,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -97,6 +98,34 @@ public class S3ObjectListServiceTest {
         session.close();
     }
 
+    @Test
+    public void testListRecursivePartitioned() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path bucket = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(bucket, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path subdirectory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new S3TouchFeature(session).touch(new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Path nested = new S3TouchFeature(session).touch(new Path(subdirectory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final S3ObjectListService service = new S3ObjectListService(session);
+        // Listing without delimiter in single request
+        final AttributedList<Path> expected = service.list(directory, new DisabledListProgressListener(), 1, 1, 0, 0);
+        assertEquals(3, expected.size());
+        for(int depth = 1; depth <= 3; depth++) {
+            final AttributedList<Path> list = service.list(directory, new DisabledListProgressListener(), 1, 2, depth, 100);
+            assertEquals(expected.toList(), list.toList());
+        }
+        // Limit of partitions reached
+        assertEquals(expected.toList(), service.list(directory, new DisabledListProgressListener(), 1, 2, 2, 0).toList());
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(nested, file, subdirectory, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void tetsEmptyPlaceholder() throws Exception {
         final S3Session session = new S3Session(
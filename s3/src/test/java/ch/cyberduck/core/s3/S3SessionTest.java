@@ -18,6 +18,7 @@ import ch.cyberduck.core.features.Logging;
 import ch.cyberduck.core.features.Redundancy;
 import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.identity.IdentityConfiguration;
+import ch.cyberduck.core.kms.KMSEncryptionFeature;
 import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DefaultX509TrustManager;
@@ -324,4 +325,13 @@ public class S3SessionTest {
         session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
         session.close();
     }
+
+    @Test
+    public void testUnsignedPayload() throws Exception {
+        final S3Session session = new S3Session(new Host(new S3Protocol(), new S3Protocol().getDefaultHostname()));
+        assertTrue(session.isUnsignedPayload(Encryption.Algorithm.NONE));
+        assertTrue(session.isUnsignedPayload(S3EncryptionFeature.SSE_AES256));
+        // ETag is not MD5 hash of content
+        assertFalse(session.isUnsignedPayload(KMSEncryptionFeature.SSE_KMS_DEFAULT));
+    }
 }
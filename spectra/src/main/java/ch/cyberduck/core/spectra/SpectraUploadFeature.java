@@ -23,12 +23,13 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
-import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.MD5ChecksumCompute;
+import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.jets3t.service.model.StorageObject;
 
 import java.security.MessageDigest;
@@ -48,20 +49,15 @@ public class SpectraUploadFeature extends HttpUploadFeature<StorageObject, Messa
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle,
                                 final StreamListener listener, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        if(Checksum.NONE == status.getChecksum()) {
-            // The client-side checksum is passed to the BlackPearl gateway by supplying the applicable CRC HTTP header.
-            // If this is done, the BlackPearl gateway verifies that the data received matches the checksum provided.
-            // End-to-end data protection requires that the client provide the CRC when uploading the object and then
-            // verify the CRC after downloading the object at a later time (see Get Object). The BlackPearl gateway also
-            // verifies the CRC when reading from physical data stores so the gateway can identify problems before
-            // transmitting data to the client.
-            status.setChecksum(writer.checksum(file).compute(local.getInputStream(), status));
-        }
         // Make sure file is available in cache
         final List<TransferStatus> chunks = bulk.query(Transfer.Type.upload, file, status);
         StorageObject stored = null;
         for(TransferStatus chunk : chunks) {
-            chunk.setChecksum(new MD5ChecksumCompute().compute(local.getInputStream(), chunk));
+            // The client-side checksum is passed to the BlackPearl gateway by supplying the applicable HTTP header.
+            // If this is done, the BlackPearl gateway verifies that the data received matches the checksum provided.
+            // Only read the range of the file sent with the chunk to calculate its checksum.
+            chunk.setChecksum(new MD5ChecksumCompute().compute(StreamCopier.skip(
+                    new BoundedInputStream(local.getInputStream(), chunk.getOffset() + chunk.getLength()), chunk.getOffset()), chunk));
             stored = super.upload(file, local, throttle, listener, chunk, callback);
         }
         return stored;
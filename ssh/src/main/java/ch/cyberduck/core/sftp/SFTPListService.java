@@ -26,22 +26,39 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.PacketType;
 import net.schmizz.sshj.sftp.RemoteDirectory;
 import net.schmizz.sshj.sftp.RemoteResourceFilter;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
     private static final Logger log = Logger.getLogger(SFTPListService.class);
 
+    private final Preferences preferences = PreferencesFactory.get();
+
     private final NFCNormalizer normalizer = new NFCNormalizer();
 
     private final SFTPSession session;
@@ -57,6 +74,8 @@ public class SFTPListService implements ListService {
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
+            final List<Path> links = new ArrayList<Path>();
+            final int chunksize = preferences.getInteger("sftp.listing.chunksize");
             final RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute());
             for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
                 @Override
@@ -76,12 +95,25 @@ public class SFTPListService implements ListService {
                     type.add(Path.Type.symboliclink);
                 }
                 final Path file = new Path(directory, normalizer.normalize(f.getName()).toString(), type, attributes);
-                if(this.post(file)) {
-                    children.add(file);
+                if(file.isSymbolicLink()) {
+                    // Added when target is resolved
+                    links.add(file);
+                    continue;
+                }
+                children.add(file);
+                if(children.size() % chunksize == 0) {
                     listener.chunk(directory, children);
                 }
             }
             handle.close();
+            final Set<Path> failed = this.post(links);
+            for(Path file : links) {
+                if(failed.contains(file)) {
+                    continue;
+                }
+                children.add(file);
+            }
+            listener.chunk(directory, children);
             return children;
         }
         catch(IOException e) {
@@ -89,12 +121,35 @@ public class SFTPListService implements ListService {
         }
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
+    /**
+     * Resolve targets of symbolic links with pipelined requests
+     *
+     * @param links Symbolic links in directory
+     * @return Symbolic links failed to read
+     */
+    protected Set<Path> post(final List<Path> links) throws BackgroundException, IOException {
+        final Set<Path> failed = Collections.newSetFromMap(new IdentityHashMap<Path, Boolean>());
+        if(links.isEmpty()) {
+            return failed;
+        }
+        final SFTPEngine sftp = session.sftp();
+        final Charset charset = sftp.getSubsystem().getRemoteCharset();
+        final List<String> paths = new ArrayList<String>(links.size());
+        for(Path file : links) {
+            paths.add(file.getAbsolute());
+        }
+        final List<Path> resolved = new ArrayList<Path>(links.size());
+        final List<String> targets = new ArrayList<String>(links.size());
+        final Pipeline readlink = new Pipeline(sftp, PacketType.READLINK, paths);
+        for(Path file : links) {
             try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+                final Response response = readlink.next();
+                response.ensurePacketTypeIs(PacketType.NAME);
+                if(response.readUInt32AsInt() != 1) {
+                    throw new SFTPException("Unexpected data in NAME packet");
+                }
+                final String link = response.readString(charset);
+                final Path target;
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
                     target = new Path(link, EnumSet.of(Path.Type.file));
                 }
@@ -102,40 +157,92 @@ public class SFTPListService implements ListService {
                     target = new Path(String.format("%s/%s", file.getParent().getAbsolute(), link),
                             EnumSet.of(Path.Type.file));
                 }
-                try {
-                    if(session.sftp().stat(target.getAbsolute()).getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
-                    }
-                }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
-                    }
-                    type = Path.Type.file;
-                }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
                 file.setSymlinkTarget(target);
+                resolved.add(file);
+                targets.add(target.getAbsolute());
             }
             catch(IOException e) {
                 log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                failed.add(file);
+            }
+        }
+        final Pipeline stat = new Pipeline(sftp, PacketType.STAT, targets);
+        for(Path file : resolved) {
+            Path.Type type;
+            try {
+                if(stat.next().ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
+                }
+                else {
+                    type = Path.Type.file;
+                }
+            }
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure to read symbolic link target of %s. %s", file, e.getMessage()));
+                failed.add(file);
+                continue;
+            }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            file.getSymlinkTarget().setType(EnumSet.of(type));
+        }
+        return failed;
+    }
+
+    /**
+     * Requests for a list of paths with a bounded number of requests outstanding. Responses are retrieved in
+     * order of paths.
+     */
+    private final class Pipeline {
+        private final SFTPEngine sftp;
+        private final PacketType type;
+        private final List<String> paths;
+        private final Charset charset;
+        private final int window;
+
+        private final Deque<Promise<Response, SFTPException>> pending
+                = new ArrayDeque<Promise<Response, SFTPException>>();
+
+        /**
+         * Number of requests sent
+         */
+        private int sent;
+
+        public Pipeline(final SFTPEngine sftp, final PacketType type, final List<String> paths) {
+            this.sftp = sftp;
+            this.type = type;
+            this.paths = paths;
+            this.charset = sftp.getSubsystem().getRemoteCharset();
+            this.window = Math.max(1, preferences.getInteger("sftp.symlink.maxunconfirmed"));
+        }
+
+        /**
+         * @return Response for next path
+         * @throws SFTPException Failure response for path
+         * @throws IOException   Failure sending requests
+         */
+        public Response next() throws IOException {
+            while(sent < paths.size() && pending.size() < window) {
+                pending.add(sftp.request(sftp.newRequest(type).putString(paths.get(sent), charset)));
+                sent++;
             }
+            return pending.remove().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
         }
-        return true;
     }
-}
\ No newline at end of file
+}
@@ -26,10 +26,13 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -89,6 +92,60 @@ public class SFTPListServiceTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListSymlinks() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new SFTPDirectoryFeature(session).mkdir(
+                new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new SFTPTouchFeature(session).touch(file, new TransferStatus());
+        final Path folder = new SFTPDirectoryFeature(session).mkdir(
+                new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final List<Path> links = new ArrayList<Path>();
+        for(int i = 0; i < 10; i++) {
+            final Path link = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(link, i % 2 == 0 ? file.getName() : folder.getAbsolute());
+            links.add(link);
+        }
+        final Path dangling = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        new SFTPSymlinkFeature(session).symlink(dangling, new AlphanumericRandomStringService().random());
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new SFTPListService(session).list(directory, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) {
+                chunks.incrementAndGet();
+            }
+        });
+        assertTrue(chunks.get() > 0);
+        assertEquals(13, list.size());
+        assertTrue(list.contains(file));
+        assertTrue(list.contains(folder));
+        for(int i = 0; i < links.size(); i++) {
+            if(i % 2 == 0) {
+                final Path link = list.get(links.get(i));
+                assertNotNull(link);
+                assertEquals(file, link.getSymlinkTarget());
+            }
+            else {
+                final Path link = list.get(new Path(directory, links.get(i).getName(), EnumSet.of(Path.Type.directory, Path.Type.symboliclink)));
+                assertNotNull(link);
+                assertEquals(folder, link.getSymlinkTarget());
+            }
+        }
+        // Kept with unknown target type
+        assertTrue(list.contains(dangling));
+        final List<Path> delete = new ArrayList<Path>(list.toList());
+        delete.add(directory);
+        new SFTPDeleteFeature(session).delete(delete, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(